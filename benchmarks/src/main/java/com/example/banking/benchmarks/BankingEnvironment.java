@@ -0,0 +1,103 @@
+package com.example.banking.benchmarks;
+
+import com.example.banking.BankingApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Приложение на PostgreSQL и Redis из Testcontainers, поднимается один раз на trial JMH.
+ * Схема создается Hibernate, как в интеграционных тестах; недостающие колонки из миграций добавляются вручную.
+ */
+final class BankingEnvironment implements AutoCloseable {
+    private final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+    private final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+    private final ConfigurableApplicationContext context;
+
+    BankingEnvironment(Map<String, Object> overrides) {
+        postgres.start();
+        redis.start();
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("spring.redis.host", redis.getHost());
+        properties.put("spring.redis.port", redis.getMappedPort(6379));
+        properties.put("spring.flyway.enabled", false);
+        properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        properties.put("spring.jpa.show-sql", false);
+        // Фоновые задачи не должны мешать измерениям
+        properties.put("banking.interest.period-ms", 3_600_000);
+        properties.put("banking.users.birth-date-backfill.enabled", false);
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+
+        SpringApplication application = new SpringApplication(BankingApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setDefaultProperties(properties);
+        context = application.run();
+
+        inTransaction(jdbc -> {
+            jdbc.execute("ALTER TABLE account ADD COLUMN IF NOT EXISTS last_interest_tick BIGINT NOT NULL DEFAULT 0");
+            jdbc.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (name gin_trgm_ops)");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_users_birth_date ON users (birth_date)");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_email_data_user_id ON email_data (user_id)");
+            jdbc.execute("CREATE INDEX IF NOT EXISTS idx_phone_data_user_id ON phone_data (user_id)");
+        });
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Пользователи user_0..user_{count-1}: у каждого два email, телефон и счет с балансом 1000.00.
+     * Данные генерируются в SQL через generate_series, поэтому миллион строк заливается за секунды.
+     */
+    void seedUsers(int count) {
+        inTransaction(jdbc -> {
+            jdbc.update("INSERT INTO users (id, name, date_of_birth, birth_date, password) " +
+                    "SELECT g, 'user_' || g, to_char(d, 'DD.MM.YYYY'), d, 'password' " +
+                    "FROM generate_series(1, ?) g, LATERAL (SELECT DATE '1950-01-01' + (g % 20000) AS d) b", count);
+            jdbc.update("INSERT INTO account (id, user_id, balance, initial_deposit, last_interest_tick) " +
+                    "SELECT g, g, 1000.00, 1000.00, 0 FROM generate_series(1, ?) g", count);
+            jdbc.update("INSERT INTO email_data (id, user_id, email) " +
+                    "SELECT 2 * g - 1, g, 'a' || g || '@example.com' FROM generate_series(1, ?) g " +
+                    "UNION ALL SELECT 2 * g, g, 'b' || g || '@example.com' FROM generate_series(1, ?) g", count, count);
+            jdbc.update("INSERT INTO phone_data (id, user_id, phone) " +
+                    "SELECT g, g, lpad(g::text, 11, '7') FROM generate_series(1, ?) g", count);
+            // Последовательности сдвигаются за сгенерированные id, чтобы Hibernate не выдал занятые
+            for (String sequence : new String[]{"users_seq", "account_seq", "email_data_seq", "phone_data_seq"}) {
+                jdbc.queryForObject("SELECT setval(?::regclass, ?)", Long.class, sequence, 2L * count + 1);
+            }
+            jdbc.execute("ANALYZE");
+        });
+    }
+
+    void inTransaction(JdbcWork work) {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        new TransactionTemplate(bean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> work.run(jdbc));
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        redis.stop();
+        postgres.stop();
+    }
+
+    interface JdbcWork {
+        void run(JdbcTemplate jdbc);
+    }
+}
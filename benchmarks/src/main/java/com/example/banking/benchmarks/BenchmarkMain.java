@@ -0,0 +1,30 @@
+package com.example.banking.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запуск: java -jar benchmarks/target/benchmarks.jar [опции JMH] [регулярное выражение бенчмарков].
+ * Если формат результата не задан (-rf), результаты пишутся в JSON (по умолчанию jmh-result.json),
+ * чтобы прогоны разных коммитов можно было сравнить.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+            if (!commandLine.getResult().hasValue()) {
+                options.result(System.getProperty("benchmarks.result", "jmh-result.json"));
+            }
+        }
+        new Runner(options.build()).run();
+    }
+}
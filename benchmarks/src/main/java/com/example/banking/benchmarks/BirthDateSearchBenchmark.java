@@ -0,0 +1,87 @@
+package com.example.banking.benchmarks;
+
+import com.example.banking.dto.CursorPage;
+import com.example.banking.dto.UserSearchDto;
+import com.example.banking.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр "родился после" до и после перехода на users.birth_date:
+ * INDEXED — текущий запрос по индексу idx_users_birth_date, NO_INDEX — тот же запрос без индекса,
+ * LEGACY_STRING — прежнее сравнение строк date_of_birth > 'DD.MM.YYYY' (результат по смыслу неверный, важна цена).
+ * Объем задается -p users=...; заливка 10 млн строк занимает несколько минут на trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class BirthDateSearchBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final String BORN_AFTER = "01.01.2000";
+    private static final String LEGACY_WHERE = " FROM users u WHERE u.date_of_birth > ?";
+
+    @Param({"100000", "10000000"})
+    public int users;
+
+    @Param({"INDEXED", "NO_INDEX", "LEGACY_STRING"})
+    public String variant;
+
+    private BankingEnvironment environment;
+    private UserService userService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = new BankingEnvironment(Map.of());
+        environment.seedUsers(users);
+        userService = environment.bean(UserService.class);
+        jdbcTemplate = environment.bean(JdbcTemplate.class);
+        if ("NO_INDEX".equals(variant)) {
+            environment.inTransaction(jdbc -> jdbc.execute("DROP INDEX IF EXISTS idx_users_birth_date"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public Object bornAfter() {
+        if ("LEGACY_STRING".equals(variant)) {
+            return jdbcTemplate.queryForList("SELECT u.id, u.name, u.date_of_birth" + LEGACY_WHERE +
+                    " ORDER BY u.id LIMIT " + (PAGE_SIZE + 1), BORN_AFTER);
+        }
+        return search(false);
+    }
+
+    @Benchmark
+    public Object bornAfterWithCount() {
+        if ("LEGACY_STRING".equals(variant)) {
+            return jdbcTemplate.queryForObject("SELECT count(*)" + LEGACY_WHERE, Long.class, BORN_AFTER);
+        }
+        return search(true);
+    }
+
+    private CursorPage<?> search(boolean includeCount) {
+        return userService.searchUsers(new UserSearchDto(null, BORN_AFTER, null, null), null, PAGE_SIZE, includeCount);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.banking.benchmarks;
+
+import com.example.banking.model.Account;
+import com.example.banking.model.EmailData;
+import com.example.banking.model.PhoneData;
+import com.example.banking.model.User;
+import com.example.banking.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Регистрация пачки пользователей через JPA: у каждого email, телефон и счет, все в одной транзакции.
+ * batchSize=1 отключает JDBC batching Hibernate, 50 — значение из application.properties;
+ * pooled-lo последовательности в обоих случаях не ходят в базу за каждым id. Результат — время на пользователя.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BulkOnboardingBenchmark {
+    private static final int USERS_PER_TRANSACTION = 500;
+    private static final BigDecimal DEPOSIT = new BigDecimal("100.00");
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private BankingEnvironment environment;
+    private UserRepository userRepository;
+    private TransactionTemplate transactionTemplate;
+    private long nextUser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = new BankingEnvironment(Map.of("spring.jpa.properties.hibernate.jdbc.batch_size", batchSize));
+        userRepository = environment.bean(UserRepository.class);
+        transactionTemplate = new TransactionTemplate(environment.bean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USERS_PER_TRANSACTION)
+    public void onboardUsers() {
+        List<User> users = new ArrayList<>(USERS_PER_TRANSACTION);
+        for (int i = 0; i < USERS_PER_TRANSACTION; i++) {
+            users.add(newUser(nextUser++));
+        }
+        transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+    }
+
+    private static User newUser(long n) {
+        User user = new User();
+        user.setName("onboarded_" + n);
+        user.setDateOfBirth("01.01.1990");
+        user.setPassword("password-hash");
+
+        EmailData email = new EmailData();
+        email.setUser(user);
+        email.setEmail("onboarded" + n + "@example.com");
+        user.getEmails().add(email);
+
+        PhoneData phone = new PhoneData();
+        phone.setUser(user);
+        phone.setPhone(String.format("8%010d", n));
+        user.getPhones().add(phone);
+
+        Account account = new Account();
+        account.setUser(user);
+        account.setBalance(DEPOSIT);
+        account.setInitialDeposit(DEPOSIT);
+        user.setAccount(account);
+        return user;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.banking.benchmarks;
+
+import com.example.banking.dto.UserSnapshot;
+import com.example.banking.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserService.getUser на каждом уровне кэша: LOCAL — попадание в Caffeine, REDIS — локальный уровень
+ * отключен и значение читается из Redis, MISS — запись удаляется перед вызовом и читается из PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+    private static final int USERS = 1000;
+
+    @Param({"LOCAL", "REDIS", "MISS"})
+    public String level;
+
+    private BankingEnvironment environment;
+    private UserService userService;
+    private Cache usersCache;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = new BankingEnvironment("REDIS".equals(level)
+                ? Map.of("banking.cache.local.users.max-size", 0)
+                : Map.of());
+        environment.seedUsers(USERS);
+        userService = environment.bean(UserService.class);
+        usersCache = environment.bean(CacheManager.class).getCache("users");
+        for (long id = 1; id <= USERS; id++) {
+            userService.getUser(id);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void pickUser() {
+        userId = 1 + ThreadLocalRandom.current().nextInt(USERS);
+        if ("MISS".equals(level)) {
+            usersCache.evict(userId);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public UserSnapshot getUser() {
+        return userService.getUser(userId);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.banking.benchmarks;
+
+import com.example.banking.exception.AccountNotFoundException;
+import com.example.banking.service.AccountService;
+import com.example.banking.service.IdempotentTransferService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена Idempotency-Key на переводе: PLAIN — AccountService.transferMoney без ключа, FIRST — новый ключ
+ * (захват и фиксация результата в idempotency_key), REPLAY_CACHE — повтор из кэша в памяти,
+ * REPLAY_DB — повтор из таблицы при отключенном кэше (banking.idempotency.cache-ttl-ms=0).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdempotencyBenchmark {
+    private static final int USERS = 1000;
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"PLAIN", "FIRST", "REPLAY_CACHE", "REPLAY_DB"})
+    public String path;
+
+    private BankingEnvironment environment;
+    private AccountService accountService;
+    private IdempotentTransferService idempotentTransferService;
+    private long fromUserId;
+    private long toUserId;
+    private String idempotencyKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = new BankingEnvironment("REPLAY_DB".equals(path)
+                ? Map.of("banking.idempotency.cache-ttl-ms", 0)
+                : Map.of());
+        environment.seedUsers(USERS);
+        accountService = environment.bean(AccountService.class);
+        idempotentTransferService = environment.bean(IdempotentTransferService.class);
+        // По одному завершенному ключу на отправителя: повторы читают их сохраненные ответы
+        for (long id = 1; id <= USERS; id++) {
+            idempotentTransferService.transfer(id, replayKey(id), recipient(id), AMOUNT);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void pickTransfer() {
+        fromUserId = 1 + ThreadLocalRandom.current().nextInt(USERS);
+        toUserId = recipient(fromUserId);
+        idempotencyKey = path.startsWith("REPLAY") ? replayKey(fromUserId) : UUID.randomUUID().toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public Object transfer() throws AccountNotFoundException {
+        if ("PLAIN".equals(path)) {
+            accountService.transferMoney(fromUserId, toUserId, AMOUNT);
+            return null;
+        }
+        return idempotentTransferService.transfer(fromUserId, idempotencyKey, toUserId, AMOUNT);
+    }
+
+    private static String replayKey(long userId) {
+        return "replay-" + userId;
+    }
+
+    private static long recipient(long userId) {
+        return userId % USERS + 1;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.banking.benchmarks;
+
+import com.example.banking.service.InterestAccrualScheduler;
+import com.example.banking.service.InterestAccrualService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Одно начисление процентов по всем счетам: последовательно (applyInterest) и по диапазонам на пуле (runTick).
+ * Перед каждым замером балансы и отметки тиков сбрасываются, чтобы обрабатывались все счета и ни один не упирался в потолок.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class InterestBenchmark {
+
+    @Param({"100000"})
+    public int accounts;
+
+    private BankingEnvironment environment;
+    private InterestAccrualService interestAccrualService;
+    private InterestAccrualScheduler interestAccrualScheduler;
+    private long tick;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Аренды диапазонов живут 1 мс, иначе повторный runTick в том же тике пропустил бы все диапазоны
+        environment = new BankingEnvironment(Map.of(
+                "banking.interest.partition-size", 10_000,
+                "banking.interest.lease-ttl-ms", 1));
+        environment.seedUsers(accounts);
+        interestAccrualService = environment.bean(InterestAccrualService.class);
+        interestAccrualScheduler = environment.bean(InterestAccrualScheduler.class);
+        tick = interestAccrualService.currentTick();
+    }
+
+    @Setup(Level.Invocation)
+    public void resetAccounts() {
+        environment.inTransaction(jdbc -> jdbc.update("UPDATE account SET balance = initial_deposit, last_interest_tick = 0"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public long applyInterest() {
+        return interestAccrualService.accrueRange(0, Long.MAX_VALUE, ++tick);
+    }
+
+    @Benchmark
+    public long runTickPartitioned() {
+        return interestAccrualScheduler.runTick();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.banking.benchmarks;
+
+import com.example.banking.config.JwtConfig;
+import com.example.banking.security.BankingUserDetails;
+import com.example.banking.security.JwtPrincipal;
+import com.example.banking.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выпуск и проверка JWT без инфраструктуры. legacyRequest повторяет прежнюю схему
+ * (новый парсер и полная проверка подписи в фильтре дважды и в контроллере еще раз),
+ * request — текущую: одна проверка через кэш проверенных токенов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs512-0123456789abcdef";
+
+    private JwtUtil cachingJwtUtil;
+    private JwtParser parser;
+    private SecretKey key;
+    private BankingUserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtConfig config = new JwtConfig();
+        config.setSecret(SECRET);
+        config.setExpiration(3_600_000);
+        cachingJwtUtil = new JwtUtil(config, 100_000, new SimpleMeterRegistry());
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
+        user = new BankingUserDetails(42L, "user_42", "", AuthorityUtils.createAuthorityList("USER"));
+        token = cachingJwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingJwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public JwtPrincipal authenticateCached() {
+        return cachingJwtUtil.authenticate(token);
+    }
+
+    // Цена промаха кэша: полная проверка подписи общим парсером
+    @Benchmark
+    public Claims verifySignature() {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    @Benchmark
+    public Long request() {
+        return cachingJwtUtil.authenticate(token).requireUserId();
+    }
+
+    @Benchmark
+    public Object legacyRequest() {
+        // validateToken + extractUsername в фильтре и extractUserId в контроллере
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        String subject = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return subject.length() + claims.get("uid", Number.class).longValue();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.banking.benchmarks;
+
+import com.example.banking.config.UserSnapshotRedisSerializer;
+import com.example.banking.dto.UserSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Значение кэша "users" в формате JDK-сериализации и в компактном UserSnapshotRedisSerializer
+ * (banking.cache.users.format=JDK и COMPACT).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"JDK", "COMPACT"})
+    public String format;
+
+    private RedisSerializer<Object> serializer;
+    private UserSnapshot value;
+    private byte[] serialized;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        value = new UserSnapshot(42L, "user_42", "01.01.1990",
+                List.of(new UserSnapshot.Contact(83L, "a42@example.com"), new UserSnapshot.Contact(84L, "b42@example.com")),
+                List.of(new UserSnapshot.Contact(42L, "77777777742")));
+        if ("JDK".equals(format)) {
+            serializer = new JdkSerializationRedisSerializer();
+        } else {
+            serializer = (RedisSerializer<Object>) (RedisSerializer<?>) new UserSnapshotRedisSerializer();
+        }
+        serialized = serializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.banking.benchmarks;
+
+import com.example.banking.exception.AccountNotFoundException;
+import com.example.banking.exception.ConcurrentTransactionException;
+import com.example.banking.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountService.transferMoney между случайными счетами в каждом режиме banking.transfer.mode.
+ * Число потоков задается -t; при малом accounts растет доля конфликтов на одних и тех же счетах.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class TransferBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"REDIS_LOCK", "ROW_LOCK", "GROUP_COMMIT"})
+    public String mode;
+
+    @Param({"1000"})
+    public int accounts;
+
+    private BankingEnvironment environment;
+    private AccountService accountService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = new BankingEnvironment(Map.of("banking.transfer.mode", mode));
+        environment.seedUsers(accounts);
+        accountService = environment.bean(AccountService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public void transferMoney(Blackhole blackhole) throws AccountNotFoundException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long from = 1 + random.nextInt(accounts);
+        long to = 1 + random.nextInt(accounts);
+        try {
+            accountService.transferMoney(from, to, AMOUNT);
+        } catch (ConcurrentTransactionException e) {
+            // В режиме REDIS_LOCK встречный перевод по той же паре счетов отклоняется, это штатный исход
+            blackhole.consume(e);
+        }
+    }
+}
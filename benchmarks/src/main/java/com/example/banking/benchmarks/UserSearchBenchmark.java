@@ -0,0 +1,83 @@
+package com.example.banking.benchmarks;
+
+import com.example.banking.dto.CursorPage;
+import com.example.banking.dto.UserSearchDto;
+import com.example.banking.dto.UserSnapshot;
+import com.example.banking.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск пользователей через UserService.searchUsers на заранее залитой базе: по подстроке имени,
+ * по email и глубокая страница по курсору. Фильтр по дате рождения измеряет BirthDateSearchBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class UserSearchBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100000"})
+    public int users;
+
+    private BankingEnvironment environment;
+    private UserService userService;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = new BankingEnvironment(Map.of());
+        environment.seedUsers(users);
+        userService = environment.bean(UserService.class);
+
+        // Курсор на середину выборки: keyset-пагинация не должна зависеть от глубины страницы
+        CursorPage<UserSnapshot> page = userService.searchUsers(filter(null, null), null, users / 2, false);
+        deepCursor = page.getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public CursorPage<UserSnapshot> byNameSubstring() {
+        return userService.searchUsers(filter("ser_" + randomId(), null), null, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public CursorPage<UserSnapshot> byEmail() {
+        return userService.searchUsers(filter(null, "a" + randomId() + "@example.com"), null, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public CursorPage<UserSnapshot> deepPage() {
+        return userService.searchUsers(filter(null, null), deepCursor, PAGE_SIZE, false);
+    }
+
+    private int randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(users);
+    }
+
+    private static UserSearchDto filter(String name, String email) {
+        return new UserSearchDto(name, null, email, null);
+    }
+}
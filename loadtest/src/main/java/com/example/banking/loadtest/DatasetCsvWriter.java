@@ -0,0 +1,35 @@
+package com.example.banking.loadtest;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Пишет набор в CSV формата импорта: name,date_of_birth,password,emails,phones,initial_deposit,
+ * несколько email и телефонов разделяются ';'. Файл загружается через --banking.import.file.
+ */
+final class DatasetCsvWriter {
+    static final String HEADER = "name,date_of_birth,password,emails,phones,initial_deposit";
+
+    private DatasetCsvWriter() {
+    }
+
+    static void write(SyntheticDataset dataset, Writer out) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+        for (int i = 0; i < dataset.size(); i++) {
+            SyntheticUser user = dataset.user(i);
+            out.write(user.getName());
+            out.write(',');
+            out.write(user.getDateOfBirth());
+            out.write(',');
+            out.write(user.getPassword());
+            out.write(',');
+            out.write(String.join(";", user.getEmails()));
+            out.write(',');
+            out.write(String.join(";", user.getPhones()));
+            out.write(',');
+            out.write(user.getInitialDeposit().toPlainString());
+            out.write('\n');
+        }
+    }
+}
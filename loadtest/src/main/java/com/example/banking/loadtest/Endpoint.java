@@ -0,0 +1,27 @@
+package com.example.banking.loadtest;
+
+public enum Endpoint {
+    LOGIN("login"),
+    GET_USER("get-user"),
+    SEARCH("search"),
+    TRANSFER("transfer");
+
+    private final String key;
+
+    Endpoint(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Endpoint of(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equalsIgnoreCase(key.trim())) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in mix: " + key);
+    }
+}
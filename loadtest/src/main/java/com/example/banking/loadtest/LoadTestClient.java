@@ -0,0 +1,102 @@
+package com.example.banking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Запросы к API приложения. Тело ответа не нужно для замеров, поэтому читается и отбрасывается,
+ * кроме ответа на вход, из которого берется токен.
+ */
+final class LoadTestClient {
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final Duration timeout;
+
+    LoadTestClient(String baseUrl, Duration timeout, Executor executor) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+    }
+
+    HttpRequest login(SyntheticUser user) {
+        return post("/api/auth/login", null, Map.of("username", user.getName(), "password", user.getPassword()));
+    }
+
+    HttpRequest getUser(Session session) {
+        return builder("/api/users/" + session.getUserId(), session).GET().build();
+    }
+
+    HttpRequest search(Session session, String parameter, String value) {
+        return builder("/api/users/search?size=10&" + parameter + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8),
+                session).GET().build();
+    }
+
+    HttpRequest transfer(Session from, Session to, BigDecimal amount) {
+        return post("/api/accounts/transfer", from, Map.of("toUserId", to.getUserId(), "amount", amount));
+    }
+
+    CompletableFuture<HttpResponse<Void>> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    /**
+     * Синхронный вход для подготовки сессий; id пользователя берется из claim uid токена без проверки подписи.
+     */
+    Session openSession(SyntheticUser user) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(login(user), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Login of " + user.getName() + " failed with status " + response.statusCode()
+                    + "; was the dataset imported with the same --users and --seed?");
+        }
+        String token = JSON.readTree(response.body()).path("access_token").asText(null);
+        if (token == null) {
+            throw new IOException("Login response has no access_token");
+        }
+        String[] parts = token.split("\\.");
+        JsonNode claims = JSON.readTree(Base64.getUrlDecoder().decode(parts[1]));
+        if (!claims.hasNonNull("uid")) {
+            throw new IOException("Token has no uid claim");
+        }
+        return new Session(user.getIndex(), claims.get("uid").asLong(), token);
+    }
+
+    private HttpRequest post(String path, Session session, Map<String, ?> body) {
+        try {
+            return builder(path, session)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(JSON.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest.Builder builder(String path, Session session) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+        if (session != null) {
+            builder.header("Authorization", "Bearer " + session.getToken());
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.banking.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Сводка прогонов для сравнения конфигураций сервера, например banking.execution.mode=PLATFORM и VIRTUAL:
+ * run --label=... --summary=file дописывает по строке на эндпоинт, compare --summary=file печатает прогоны рядом.
+ * Первая метка в файле считается базовой, повторный прогон с той же меткой заменяет предыдущий.
+ */
+final class LoadTestComparison {
+    private static final String HEADER = "label,endpoint,requests,errors,dropped,rps,p50_ms,p99_ms,p999_ms";
+
+    private LoadTestComparison() {
+    }
+
+    static void append(Path summary, String label, Map<Endpoint, EndpointStats> stats, long durationSeconds)
+            throws IOException {
+        if (label.isEmpty() || label.indexOf(',') >= 0) {
+            throw new IllegalArgumentException("Label must be non-empty and contain no commas: " + label);
+        }
+        List<String> lines = new ArrayList<>();
+        if (!Files.exists(summary)) {
+            lines.add(HEADER);
+        }
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            if (endpoint.getRequests() == 0 && endpoint.getDropped() == 0) {
+                continue;
+            }
+            Histogram latencies = endpoint.getLatencies();
+            lines.add(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f",
+                    label,
+                    entry.getKey().getKey(),
+                    endpoint.getRequests(),
+                    endpoint.getErrors(),
+                    endpoint.getDropped(),
+                    (double) endpoint.getRequests() / durationSeconds,
+                    LoadTestReport.millis(latencies, 50),
+                    LoadTestReport.millis(latencies, 99),
+                    LoadTestReport.millis(latencies, 99.9)));
+        }
+        Files.write(summary, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    static void print(Path summary, PrintStream out) throws IOException {
+        Map<String, Map<String, String[]>> byEndpoint = new LinkedHashMap<>();
+        String baseline = null;
+        for (String line : Files.readAllLines(summary)) {
+            if (line.isEmpty() || line.equals(HEADER)) {
+                continue;
+            }
+            String[] row = line.split(",");
+            if (row.length != 9) {
+                throw new IllegalArgumentException("Malformed summary line: " + line);
+            }
+            if (baseline == null) {
+                baseline = row[0];
+            }
+            byEndpoint.computeIfAbsent(row[1], e -> new LinkedHashMap<>()).put(row[0], row);
+        }
+
+        out.println(String.format(Locale.ROOT, "%-10s %-12s %9s %7s %8s %9s %9s %9s %9s %9s",
+                "endpoint", "label", "rps", "err%", "dropped", "p50 ms", "p99 ms", "p99.9 ms", "rps/base", "p99/base"));
+        for (Map<String, String[]> runs : byEndpoint.values()) {
+            String[] base = runs.get(baseline);
+            for (String[] row : runs.values()) {
+                long requests = Long.parseLong(row[2]);
+                out.println(String.format(Locale.ROOT, "%-10s %-12s %9s %6.2f%% %8s %9s %9s %9s %9s %9s",
+                        row[1],
+                        row[0],
+                        row[5],
+                        requests == 0 ? 0.0 : 100.0 * Long.parseLong(row[3]) / requests,
+                        row[4],
+                        row[6],
+                        row[7],
+                        row[8],
+                        ratio(row[5], base == null ? null : base[5]),
+                        ratio(row[7], base == null ? null : base[7])));
+            }
+        }
+    }
+
+    private static String ratio(String value, String baseValue) {
+        if (baseValue == null || Double.parseDouble(baseValue) == 0) {
+            return "-";
+        }
+        return String.format(Locale.ROOT, "x%.2f", Double.parseDouble(value) / Double.parseDouble(baseValue));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.banking.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Запуск:
+ * java -jar loadtest.jar generate --users=100000 [--seed=42] [--out=users.csv]
+ * java -jar loadtest.jar run --users=100000 [--seed=42] [--base-url=http://localhost:8080] [--rate=200]
+ * [--duration=60] [--warmup=10] [--concurrency=256] [--sessions=200] [--mix=login=5,get-user=50,search=30,transfer=15]
+ * [--arrival=poisson|constant] [--timeout-ms=10000] [--io-threads=8] [--histogram-dir=hgrm]
+ * [--summary=summary.csv --label=platform]
+ * java -jar loadtest.jar compare --summary=summary.csv
+ * Для run значения --users и --seed должны совпадать с теми, с которыми генерировался импортированный файл.
+ */
+public final class LoadTestMain {
+    private static final long DEFAULT_SEED = 42;
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !("generate".equals(args[0]) || "run".equals(args[0]) || "compare".equals(args[0]))) {
+            System.err.println("Usage: java -jar loadtest.jar generate|run|compare --key=value ...");
+            System.exit(2);
+        }
+        LoadTestOptions options = new LoadTestOptions(args, 1);
+        if ("compare".equals(args[0])) {
+            LoadTestComparison.print(Paths.get(options.string("summary")), System.out);
+            return;
+        }
+        SyntheticDataset dataset = new SyntheticDataset(
+                options.longValue("seed", DEFAULT_SEED), Integer.parseInt(options.string("users")));
+
+        if ("generate".equals(args[0])) {
+            generate(dataset, Paths.get(options.string("out", "users.csv")));
+        } else {
+            System.exit(run(dataset, options));
+        }
+    }
+
+    private static void generate(SyntheticDataset dataset, Path out) throws IOException {
+        long startedAt = System.currentTimeMillis();
+        try (BufferedWriter writer = Files.newBufferedWriter(out)) {
+            DatasetCsvWriter.write(dataset, writer);
+        }
+        System.out.printf("%d users written to %s in %d ms%n", dataset.size(), out, System.currentTimeMillis() - startedAt);
+    }
+
+    private static int run(SyntheticDataset dataset, LoadTestOptions options) throws Exception {
+        ScenarioMix mix = ScenarioMix.parse(options.string("mix", ScenarioMix.DEFAULT));
+        long seed = options.longValue("seed", DEFAULT_SEED);
+        int sessionCount = Math.min(options.integer("sessions", 200), dataset.size());
+        if (sessionCount < 2 && mix.includes(Endpoint.TRANSFER)) {
+            throw new IllegalArgumentException("Transfers need at least two sessions");
+        }
+        double rate = options.decimal("rate", 200);
+        long warmup = options.longValue("warmup", 10);
+        long duration = options.longValue("duration", 60);
+        String arrival = options.string("arrival", "poisson");
+
+        ExecutorService io = Executors.newFixedThreadPool(options.integer("io-threads", 8));
+        try {
+            LoadTestClient client = new LoadTestClient(options.string("base-url", "http://localhost:8080"),
+                    Duration.ofMillis(options.longValue("timeout-ms", 10_000)), io);
+
+            List<Session> sessions = openSessions(client, dataset, sessionCount, seed);
+            System.out.printf("Opened %d sessions; running %.1f req/s (%s) for %ds after %ds warmup%n",
+                    sessions.size(), rate, arrival, duration, warmup);
+
+            OpenLoopRunner runner = new OpenLoopRunner(client, dataset, mix, sessions,
+                    options.integer("concurrency", 256), seed);
+            Map<Endpoint, EndpointStats> stats = runner.run(rate, !"constant".equals(arrival), warmup, duration);
+
+            LoadTestReport.print(stats, duration, System.out);
+            String histogramDir = options.string("histogram-dir", null);
+            if (histogramDir != null) {
+                LoadTestReport.writeHistograms(stats, Paths.get(histogramDir));
+            }
+            String summary = options.string("summary", null);
+            if (summary != null) {
+                LoadTestComparison.append(Paths.get(summary), options.string("label", "run"), stats, duration);
+            }
+            return 0;
+        } finally {
+            io.shutdownNow();
+        }
+    }
+
+    // Вход выполняет BCrypt, поэтому сессии открываются заранее и параллельно
+    private static List<Session> openSessions(LoadTestClient client, SyntheticDataset dataset, int count, long seed)
+            throws InterruptedException, IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        Set<Integer> indexes = new LinkedHashSet<>();
+        while (indexes.size() < count) {
+            indexes.add(random.nextInt(dataset.size()));
+        }
+
+        ExecutorService logins = Executors.newFixedThreadPool(Math.min(16, count));
+        try {
+            List<Future<Session>> pending = new ArrayList<>(count);
+            for (int index : indexes) {
+                pending.add(logins.submit(() -> client.openSession(dataset.user(index))));
+            }
+            List<Session> sessions = new ArrayList<>(count);
+            for (Future<Session> future : pending) {
+                try {
+                    sessions.add(future.get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+                }
+            }
+            return sessions;
+        } finally {
+            logins.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.banking.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Аргументы вида --key=value после имени команды.
+ */
+final class LoadTestOptions {
+    private final Map<String, String> values = new HashMap<>();
+
+    LoadTestOptions(String[] args, int from) {
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Options must look like --key=value: " + arg);
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+    }
+
+    String string(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    String string(String key) {
+        String value = values.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Option --" + key + " is required");
+        }
+        return value;
+    }
+
+    int integer(String key, int defaultValue) {
+        return values.containsKey(key) ? parse(key, Integer::parseInt) : defaultValue;
+    }
+
+    long longValue(String key, long defaultValue) {
+        return values.containsKey(key) ? parse(key, Long::parseLong) : defaultValue;
+    }
+
+    double decimal(String key, double defaultValue) {
+        return values.containsKey(key) ? parse(key, Double::parseDouble) : defaultValue;
+    }
+
+    private <T> T parse(String key, Function<String, T> parser) {
+        try {
+            return parser.apply(values.get(key));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + key + " must be a number: " + values.get(key));
+        }
+    }
+}
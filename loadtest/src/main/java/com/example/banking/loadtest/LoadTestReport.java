@@ -0,0 +1,69 @@
+package com.example.banking.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Таблица перцентилей и ошибок по эндпоинтам; при заданном каталоге еще и распределения в формате .hgrm
+ * для HdrHistogram plotter.
+ */
+final class LoadTestReport {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private LoadTestReport() {
+    }
+
+    static void print(Map<Endpoint, EndpointStats> stats, long durationSeconds, PrintStream out) {
+        out.println(String.format(Locale.ROOT, "%-10s %9s %8s %7s %8s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "requests", "errors", "err%", "dropped", "rps", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            if (endpoint.getRequests() == 0 && endpoint.getDropped() == 0) {
+                continue;
+            }
+            Histogram latencies = endpoint.getLatencies();
+            out.println(String.format(Locale.ROOT, "%-10s %9d %8d %6.2f%% %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                    entry.getKey().getKey(),
+                    endpoint.getRequests(),
+                    endpoint.getErrors(),
+                    endpoint.getRequests() == 0 ? 0.0 : 100.0 * endpoint.getErrors() / endpoint.getRequests(),
+                    endpoint.getDropped(),
+                    (double) endpoint.getRequests() / durationSeconds,
+                    millis(latencies, 50),
+                    millis(latencies, 90),
+                    millis(latencies, 99),
+                    millis(latencies, 99.9),
+                    latencies.getMaxValue() / NANOS_PER_MILLI));
+        }
+        out.println();
+        out.println("HTTP statuses (0 = no response):");
+        stats.forEach((endpoint, endpointStats) -> {
+            if (!endpointStats.getStatuses().isEmpty()) {
+                out.println("  " + endpoint.getKey() + ": " + endpointStats.getStatuses());
+            }
+        });
+    }
+
+    static void writeHistograms(Map<Endpoint, EndpointStats> stats, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Endpoint, EndpointStats> entry : stats.entrySet()) {
+            if (entry.getValue().getRequests() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(entry.getKey().getKey() + ".hgrm")), false, "UTF-8")) {
+                entry.getValue().getLatencies().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+}
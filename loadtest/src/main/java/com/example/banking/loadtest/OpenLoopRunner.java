@@ -0,0 +1,137 @@
+package com.example.banking.loadtest;
+
+import java.math.BigDecimal;
+import java.net.http.HttpRequest;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Открытая модель нагрузки: запросы отправляются по расписанию прихода независимо от того, ответил ли сервер
+ * на предыдущие. Задержка считается от запланированного момента отправки, поэтому отставание генератора
+ * и очередь на сервере попадают в перцентили, а не скрываются (coordinated omission).
+ */
+final class OpenLoopRunner {
+    private final LoadTestClient client;
+    private final SyntheticDataset dataset;
+    private final ScenarioMix mix;
+    private final List<Session> sessions;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final SplittableRandom random;
+
+    OpenLoopRunner(LoadTestClient client, SyntheticDataset dataset, ScenarioMix mix, List<Session> sessions,
+                   int maxInFlight, long seed) {
+        this.client = client;
+        this.dataset = dataset;
+        this.mix = mix;
+        this.sessions = sessions;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * @param poisson интервалы между запросами экспоненциальные (пуассоновский поток), иначе равные
+     */
+    Map<Endpoint, EndpointStats> run(double ratePerSecond, boolean poisson, long warmupSeconds, long durationSeconds)
+            throws InterruptedException {
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        double offset = 0;
+        while (true) {
+            long intended = start + (long) offset;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Endpoint endpoint = mix.pick(random.nextDouble());
+            // Запросы прогрева выполняются, но в статистику не попадают
+            EndpointStats target = intended >= measureFrom ? stats.get(endpoint) : null;
+            if (!inFlight.tryAcquire()) {
+                if (target != null) {
+                    target.recordDropped();
+                }
+            } else {
+                client.send(request(endpoint)).whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intended;
+                    // Слот освобождается после записи: иначе ожидание в конце прогона вернется раньше, чем запишутся результаты
+                    try {
+                        if (target != null) {
+                            target.record(latency, response != null ? response.statusCode() : EndpointStats.NO_RESPONSE);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+
+            offset += poisson ? -Math.log(1 - random.nextDouble()) * intervalNanos : intervalNanos;
+        }
+
+        // Ответы на последние запросы еще входят в замер
+        if (inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+        return stats;
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        switch (endpoint) {
+            case LOGIN:
+                return client.login(dataset.user(random.nextInt(dataset.size())));
+            case GET_USER:
+                return client.getUser(randomSession());
+            case SEARCH:
+                return search();
+            case TRANSFER:
+                return transfer();
+            default:
+                throw new IllegalStateException("Unsupported endpoint " + endpoint);
+        }
+    }
+
+    // Поиск по фамилии дает много совпадений, по email — ровно одно, по дате рождения — широкий диапазон
+    private HttpRequest search() {
+        SyntheticUser user = dataset.user(random.nextInt(dataset.size()));
+        double kind = random.nextDouble();
+        if (kind < 0.5) {
+            return client.search(randomSession(), "name", user.getLastName());
+        }
+        if (kind < 0.8) {
+            return client.search(randomSession(), "email", user.getEmails().get(0));
+        }
+        return client.search(randomSession(), "dateOfBirth", user.getDateOfBirth());
+    }
+
+    private HttpRequest transfer() {
+        Session from = randomSession();
+        Session to = sessions.get(random.nextInt(sessions.size()));
+        while (to == from) {
+            to = sessions.get(random.nextInt(sessions.size()));
+        }
+        // Суммы от 0.01 до 50.00: остатков с медианой 300 хватает надолго, но пустые счета дают отказы
+        BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(5000), 2);
+        return client.transfer(from, to, amount);
+    }
+
+    private Session randomSession() {
+        return sessions.get(random.nextInt(sessions.size()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.banking.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Доли запросов по эндпоинтам, например "login=5,get-user=50,search=30,transfer=15".
+ * Веса нормируются, поэтому в сумме не обязаны давать 100.
+ */
+final class ScenarioMix {
+    static final String DEFAULT = "login=5,get-user=50,search=30,transfer=15";
+
+    private final Endpoint[] endpoints;
+    private final double[] cumulative;
+
+    private ScenarioMix(Map<Endpoint, Double> weights) {
+        double total = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Mix must contain at least one endpoint with positive weight");
+        }
+        endpoints = weights.keySet().toArray(new Endpoint[0]);
+        cumulative = new double[endpoints.length];
+        double sum = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            sum += weights.get(endpoints[i]);
+            cumulative[i] = sum / total;
+        }
+    }
+
+    static ScenarioMix parse(String spec) {
+        Map<Endpoint, Double> weights = new EnumMap<>(Endpoint.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Mix entry must look like endpoint=weight: " + part);
+            }
+            double weight;
+            try {
+                weight = Double.parseDouble(pair[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Mix weight is not a number: " + part);
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weight must not be negative: " + part);
+            }
+            weights.merge(Endpoint.of(pair[0]), weight, Double::sum);
+        }
+        return new ScenarioMix(weights);
+    }
+
+    boolean includes(Endpoint endpoint) {
+        for (int i = 0; i < endpoints.length; i++) {
+            if (endpoints[i] == endpoint) {
+                return cumulative[i] > (i == 0 ? 0 : cumulative[i - 1]);
+            }
+        }
+        return false;
+    }
+
+    // u равномерно распределено в [0, 1)
+    Endpoint pick(double u) {
+        for (int i = 0; i < endpoints.length - 1; i++) {
+            if (u < cumulative[i]) {
+                return endpoints[i];
+            }
+        }
+        return endpoints[endpoints.length - 1];
+    }
+}
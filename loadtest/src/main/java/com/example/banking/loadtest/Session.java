@@ -0,0 +1,13 @@
+package com.example.banking.loadtest;
+
+import lombok.Value;
+
+/**
+ * Вошедший пользователь набора: его токен используется запросами get-user, search и transfer.
+ */
+@Value
+class Session {
+    int index;
+    long userId;
+    String token;
+}
@@ -0,0 +1,119 @@
+package com.example.banking.loadtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Детерминированный набор пользователей: пользователь с номером index полностью определяется парой (seed, index),
+ * поэтому генератор файла и нагрузочный прогон независимо получают одни и те же имена, пароли и контакты.
+ * Номер входит в имя, email и телефон — так они уникальны и проходят проверки импорта.
+ */
+public final class SyntheticDataset {
+    // Телефон 79XXXXXXXXX: на пользователя приходится не больше двух номеров
+    static final int MAX_SIZE = 500_000_000;
+
+    // Женские имена идут после мужских, с FEMALE_FROM
+    private static final int FEMALE_FROM = 10;
+    private static final String[] FIRST_NAMES = {
+            "Ivan", "Alexey", "Dmitry", "Sergey", "Andrey", "Mikhail", "Nikolay", "Pavel", "Artem", "Maxim",
+            "Olga", "Elena", "Anna", "Maria", "Tatiana", "Natalia", "Irina", "Svetlana", "Ekaterina", "Daria"};
+    // Фамилии выбираются неравномерно: первые встречаются намного чаще, как в реальных данных
+    private static final String[] LAST_NAMES = {
+            "Ivanov", "Smirnov", "Kuznetsov", "Popov", "Vasiliev", "Petrov", "Sokolov", "Mikhailov", "Novikov",
+            "Fedorov", "Morozov", "Volkov", "Alekseev", "Lebedev", "Semenov", "Egorov", "Pavlov", "Kozlov",
+            "Stepanov", "Nikolaev", "Orlov", "Andreev", "Makarov", "Nikitin", "Zakharov", "Zaitsev", "Soloviev",
+            "Borisov", "Yakovlev", "Grigoriev", "Romanov", "Vorobiev", "Sergeev", "Kuzmin", "Frolov", "Alexandrov"};
+    private static final String[] DOMAINS = {"gmail.com", "mail.ru", "yandex.ru", "outlook.com", "example.org"};
+    private static final double[] DOMAIN_WEIGHTS = {0.35, 0.30, 0.20, 0.10, 0.05};
+
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2024, 1, 1);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final long seed;
+    private final int size;
+
+    public SyntheticDataset(long seed, int size) {
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Dataset size must be between 1 and " + MAX_SIZE);
+        }
+        this.seed = seed;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public SyntheticUser user(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("User index " + index + " is outside of dataset of " + size);
+        }
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+
+        int firstNameIndex = random.nextInt(FIRST_NAMES.length);
+        String firstName = FIRST_NAMES[firstNameIndex];
+        String lastName = LAST_NAMES[(int) (LAST_NAMES.length * Math.pow(random.nextDouble(), 2))]
+                + (firstNameIndex >= FEMALE_FROM ? "a" : "");
+        String name = firstName + " " + lastName + " " + index;
+
+        // Возраст: нормальное распределение около 38 лет, от 18 до 90
+        double age = Math.max(18, Math.min(90, 38 + 14 * gaussian(random)));
+        String dateOfBirth = REFERENCE_DATE.minusDays((long) (age * 365.25)).format(DATE_FORMAT);
+
+        // Большинству хватает одного email и одного телефона
+        int emailCount = count(random.nextDouble(), 0.65, 0.93);
+        List<String> emails = new ArrayList<>(emailCount);
+        for (int k = 0; k < emailCount; k++) {
+            String localPart = k == 0 ? firstName + "." + lastName + "." + index : lastName + index + "." + k;
+            emails.add((localPart + "@" + DOMAINS[weighted(random.nextDouble(), DOMAIN_WEIGHTS)]).toLowerCase(Locale.ROOT));
+        }
+        int phoneCount = count(random.nextDouble(), 0.8);
+        List<String> phones = new ArrayList<>(phoneCount);
+        for (int k = 0; k < phoneCount; k++) {
+            phones.add(String.format("79%09d", index * 2L + k));
+        }
+
+        // Лог-нормальный остаток с медианой 300, у части клиентов счет пустой
+        BigDecimal deposit = random.nextDouble() < 0.07
+                ? BigDecimal.ZERO.setScale(2)
+                : BigDecimal.valueOf(Math.min(1_000_000, Math.exp(Math.log(300) + 1.5 * gaussian(random))))
+                .setScale(2, RoundingMode.HALF_UP);
+
+        return new SyntheticUser(index, name, lastName, dateOfBirth, password(index), emails, phones, deposit);
+    }
+
+    static String password(int index) {
+        return "Passw0rd-" + index;
+    }
+
+    // Количество от 1: сколько порогов u уже прошло, плюс один
+    private static int count(double u, double... thresholds) {
+        int i = 0;
+        while (i < thresholds.length && u >= thresholds[i]) {
+            i++;
+        }
+        return i + 1;
+    }
+
+    private static int weighted(double u, double[] weights) {
+        double cumulative = 0;
+        for (int i = 0; i < weights.length - 1; i++) {
+            cumulative += weights[i];
+            if (u < cumulative) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    // SplittableRandom в Java 11 не умеет nextGaussian, поэтому преобразование Бокса — Мюллера
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.banking.loadtest;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Value
+public class SyntheticUser {
+    int index;
+    String name;
+    String lastName;
+    String dateOfBirth;
+    String password;
+    List<String> emails;
+    List<String> phones;
+    BigDecimal initialDeposit;
+}
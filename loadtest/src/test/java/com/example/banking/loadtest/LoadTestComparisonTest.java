@@ -0,0 +1,72 @@
+package com.example.banking.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTestComparisonTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void print_TwoLabels_ShowsRatiosAgainstFirst() throws Exception {
+        // Arrange
+        Path summary = dir.resolve("summary.csv");
+        LoadTestComparison.append(summary, "platform", stats(100, 40_000_000L), 10);
+        LoadTestComparison.append(summary, "virtual", stats(200, 10_000_000L), 10);
+
+        // Act
+        String table = print(summary);
+
+        // Assert
+        assertTrue(table.contains("platform"));
+        assertTrue(table.matches("(?s).*transfer\\s+virtual\\s+20\\.0 .*x2\\.00\\s+x0\\.25.*"), table);
+    }
+
+    @Test
+    void print_RepeatedLabel_KeepsLatestRun() throws Exception {
+        // Arrange
+        Path summary = dir.resolve("summary.csv");
+        LoadTestComparison.append(summary, "platform", stats(100, 40_000_000L), 10);
+        LoadTestComparison.append(summary, "platform", stats(50, 40_000_000L), 10);
+
+        // Act
+        String table = print(summary);
+
+        // Assert
+        assertFalse(table.contains(" 10.0 "), table);
+        assertTrue(table.contains(" 5.0 "), table);
+    }
+
+    @Test
+    void append_LabelWithComma_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadTestComparison.append(dir.resolve("summary.csv"), "a,b", stats(1, 1_000L), 1));
+    }
+
+    private static Map<Endpoint, EndpointStats> stats(int requests, long latencyNanos) {
+        EndpointStats transfer = new EndpointStats();
+        for (int i = 0; i < requests; i++) {
+            transfer.record(latencyNanos, 200);
+        }
+        Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+        stats.put(Endpoint.TRANSFER, transfer);
+        stats.put(Endpoint.LOGIN, new EndpointStats());
+        return stats;
+    }
+
+    private static String print(Path summary) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LoadTestComparison.print(summary, new PrintStream(out, true, "UTF-8"));
+        return out.toString(StandardCharsets.UTF_8.name());
+    }
+}
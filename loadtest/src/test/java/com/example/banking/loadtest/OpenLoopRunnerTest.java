@@ -0,0 +1,71 @@
+package com.example.banking.loadtest;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenLoopRunnerTest {
+
+    private HttpServer server;
+    private ExecutorService io;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/users/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        // Переводы отвечают 402, как при нехватке средств
+        server.createContext("/api/accounts/transfer", exchange -> {
+            // Непрочитанное тело POST сбрасывает соединение вместо ответа
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(402, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        io = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        io.shutdownNow();
+    }
+
+    @Test
+    void run_RecordsLatenciesAndErrorsPerEndpoint() throws Exception {
+        // Arrange
+        LoadTestClient client = new LoadTestClient("http://127.0.0.1:" + server.getAddress().getPort(),
+                Duration.ofSeconds(5), io);
+        List<Session> sessions = List.of(new Session(0, 1, "a"), new Session(1, 2, "b"));
+        OpenLoopRunner runner = new OpenLoopRunner(client, new SyntheticDataset(1, 100),
+                ScenarioMix.parse("get-user=1,transfer=1"), sessions, 64, 1);
+
+        // Act
+        Map<Endpoint, EndpointStats> stats = runner.run(200, false, 0, 1);
+
+        // Assert
+        EndpointStats getUser = stats.get(Endpoint.GET_USER);
+        EndpointStats transfer = stats.get(Endpoint.TRANSFER);
+        assertEquals(200, getUser.getRequests() + transfer.getRequests() + getUser.getDropped() + transfer.getDropped(), 2);
+        assertTrue(getUser.getRequests() > 50);
+        assertEquals(0, getUser.getErrors());
+        assertEquals(transfer.getRequests(), transfer.getErrors());
+        assertEquals(Map.of(402, transfer.getRequests()), transfer.getStatuses());
+        assertTrue(getUser.getLatencies().getMaxValue() > 0);
+        assertEquals(0, stats.get(Endpoint.LOGIN).getRequests());
+    }
+}
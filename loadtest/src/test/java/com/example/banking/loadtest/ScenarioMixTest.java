@@ -0,0 +1,40 @@
+package com.example.banking.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioMixTest {
+
+    @Test
+    void pick_WeightsAreNormalised() {
+        // Arrange
+        ScenarioMix mix = ScenarioMix.parse("get-user=3,transfer=1");
+
+        // Act & Assert
+        assertEquals(Endpoint.GET_USER, mix.pick(0.0));
+        assertEquals(Endpoint.GET_USER, mix.pick(0.74));
+        assertEquals(Endpoint.TRANSFER, mix.pick(0.75));
+        assertEquals(Endpoint.TRANSFER, mix.pick(0.999));
+        assertFalse(mix.includes(Endpoint.LOGIN));
+    }
+
+    @Test
+    void pick_ZeroWeight_NeverChosen() {
+        // Arrange
+        ScenarioMix mix = ScenarioMix.parse("login=0,search=1,transfer=0");
+
+        // Act & Assert
+        assertEquals(Endpoint.SEARCH, mix.pick(0.0));
+        assertEquals(Endpoint.SEARCH, mix.pick(0.999));
+        assertFalse(mix.includes(Endpoint.TRANSFER));
+    }
+
+    @Test
+    void parse_InvalidSpec_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("unknown=1"));
+        assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("search"));
+        assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("search=-1"));
+        assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("search=0"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.banking.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDatasetTest {
+
+    // Те же проверки, что выполняет импорт
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE = Pattern.compile("^\\d{11}$");
+    private static final Pattern DATE = Pattern.compile("^\\d{2}\\.\\d{2}\\.\\d{4}$");
+
+    @Test
+    void user_SameSeedAndIndex_ReturnsSameUser() {
+        // Arrange
+        SyntheticDataset first = new SyntheticDataset(7, 1000);
+        SyntheticDataset second = new SyntheticDataset(7, 50_000);
+
+        // Act & Assert
+        assertEquals(first.user(123), second.user(123));
+        assertNotEquals(first.user(123), new SyntheticDataset(8, 1000).user(123));
+    }
+
+    @Test
+    void user_AllUsers_PassImportValidationAndAreUnique() {
+        // Arrange
+        SyntheticDataset dataset = new SyntheticDataset(42, 20_000);
+        Set<String> names = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+
+        // Act & Assert
+        for (int i = 0; i < dataset.size(); i++) {
+            SyntheticUser user = dataset.user(i);
+            assertTrue(names.add(user.getName()));
+            assertTrue(DATE.matcher(user.getDateOfBirth()).matches());
+            assertTrue(user.getPassword().length() >= 8);
+            assertTrue(user.getInitialDeposit().signum() >= 0);
+            assertTrue(user.getInitialDeposit().scale() <= 2);
+            for (String email : user.getEmails()) {
+                assertTrue(EMAIL.matcher(email).matches(), email);
+                assertTrue(emails.add(email), email);
+            }
+            for (String phone : user.getPhones()) {
+                assertTrue(PHONE.matcher(phone).matches(), phone);
+                assertTrue(phones.add(phone), phone);
+            }
+        }
+    }
+
+    @Test
+    void user_ManyUsers_ContactCountsFollowDistribution() {
+        // Arrange
+        SyntheticDataset dataset = new SyntheticDataset(42, 20_000);
+        int singleEmail = 0;
+        int singlePhone = 0;
+
+        // Act
+        for (int i = 0; i < dataset.size(); i++) {
+            SyntheticUser user = dataset.user(i);
+            singleEmail += user.getEmails().size() == 1 ? 1 : 0;
+            singlePhone += user.getPhones().size() == 1 ? 1 : 0;
+        }
+
+        // Assert
+        assertEquals(0.65, singleEmail / 20_000.0, 0.02);
+        assertEquals(0.8, singlePhone / 20_000.0, 0.02);
+    }
+
+    @Test
+    void write_ProducesImportHeaderAndOneLinePerUser() throws Exception {
+        // Arrange
+        SyntheticDataset dataset = new SyntheticDataset(1, 3);
+        StringWriter out = new StringWriter();
+
+        // Act
+        DatasetCsvWriter.write(dataset, out);
+
+        // Assert
+        String[] lines = out.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertEquals(DatasetCsvWriter.HEADER, lines[0]);
+        assertTrue(lines[1].startsWith(dataset.user(0).getName() + ","));
+        assertEquals(6, lines[2].split(",", -1).length);
+    }
+}
@@ -1,28 +1,99 @@
 package com.example.banking.config;
 
-import org.springframework.cache.CacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, Environment environment,
+                                             MeterRegistry meterRegistry) {
         RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(10))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(redisConnectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(cacheConfiguration)
+                .withInitialCacheConfigurations(valueSerializers(cacheConfiguration, environment))
+                // Счетчики попаданий и промахов Redis для RedisCacheMetrics
+                .enableStatistics()
                 .build();
+        redisCacheManager.initializeCaches();
+
+        return new TwoLevelCacheManager(redisCacheManager, new StringRedisTemplate(redisConnectionFactory), environment,
+                meterRegistry);
+    }
+
+    // Компактные форматы по типу значения кэша. Версия формата входит в префикс ключей,
+    // поэтому смена формата или его версии не ломает чтение старых записей
+    private static final Map<String, CompactFormat> COMPACT_FORMATS = Map.of(
+            "users", new CompactFormat(new UserSnapshotRedisSerializer(), UserSnapshotRedisSerializer.FORMAT_VERSION));
+
+    // banking.cache.{name}.format: кэши с компактным форматом используют его по умолчанию, остальные JDK-сериализацию
+    static Map<String, RedisCacheConfiguration> valueSerializers(RedisCacheConfiguration defaults, Environment environment) {
+        Set<String> cacheNames = new TreeSet<>(COMPACT_FORMATS.keySet());
+        Binder.get(environment).bind("banking.cache", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of())
+                .keySet().stream()
+                .filter(key -> key.endsWith(".format"))
+                .map(key -> key.substring(0, key.length() - ".format".length()))
+                .forEach(cacheNames::add);
+
+        Map<String, RedisCacheConfiguration> configurations = new HashMap<>();
+        for (String cacheName : cacheNames) {
+            CompactFormat compact = COMPACT_FORMATS.get(cacheName);
+            CacheValueFormat format = environment.getProperty("banking.cache." + cacheName + ".format",
+                    CacheValueFormat.class, compact != null ? CacheValueFormat.COMPACT : CacheValueFormat.JDK);
+            if (format != CacheValueFormat.COMPACT) {
+                continue;
+            }
+            if (compact == null) {
+                throw new IllegalStateException("Cache '" + cacheName + "' has no compact value format");
+            }
+            configurations.put(cacheName, defaults
+                    .computePrefixWith(name -> name + ":v" + compact.version + "::")
+                    .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(compact.serializer)));
+        }
+        return configurations;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory redisConnectionFactory,
+                                                                   TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    private static final class CompactFormat {
+        final RedisSerializer<?> serializer;
+        final int version;
+
+        CompactFormat(RedisSerializer<?> serializer, int version) {
+            this.serializer = serializer;
+            this.version = version;
+        }
     }
-}
\ No newline at end of file
+}
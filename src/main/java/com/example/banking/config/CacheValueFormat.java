@@ -0,0 +1,7 @@
+package com.example.banking.config;
+
+// Формат значений кэша в Redis, задается banking.cache.{name}.format
+public enum CacheValueFormat {
+    JDK,
+    COMPACT
+}
@@ -0,0 +1,38 @@
+package com.example.banking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Режим LEDGER: перевод не выполняет SQL, поэтому транзакция transferMoney не должна брать соединение из пула.
+ * Hibernate откладывает получение соединения до первого SQL, только если пул отдает соединения с auto-commit=false.
+ * В остальных режимах настройка не включается: с ней запись через JDBC вне транзакции молча откатывается.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.transfer.mode", havingValue = "LEDGER")
+public class LedgerDataSourceConfig {
+
+    // До инициализации, пока DataSource еще не обернут трассировкой SQL и пул не запущен
+    @Bean
+    public static BeanPostProcessor ledgerAutoCommitPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource) {
+                    ((HikariDataSource) bean).setAutoCommit(false);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer ledgerDeferredConnectionCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_PROVIDER_DISABLES_AUTOCOMMIT, true);
+    }
+}
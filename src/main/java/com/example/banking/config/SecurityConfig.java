@@ -1,9 +1,13 @@
 package com.example.banking.config;
 
+import com.example.banking.security.BankingUserDetails;
 import com.example.banking.security.JwtAuthenticationFilter;
 import com.example.banking.security.JwtAuthorizationFilter;
 import com.example.banking.security.JwtUtil;
+import com.example.banking.security.OffloadingPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -11,19 +15,36 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 @Order(1)
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    private static final String BCRYPT = "bcrypt";
+
     @Autowired
     private JwtUtil jwtUtil;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // Новые хеши пишутся как {bcrypt} с заданной стоимостью; старые без префикса проверяются BCrypt
+    // и при успешном входе перехешируются (UserService реализует UserDetailsPasswordService)
+    @Bean(destroyMethod = "shutdown")
+    public OffloadingPasswordEncoder passwordEncoder(@Value("${banking.password.bcrypt-strength:10}") int strength,
+                                                     @Value("${banking.password.hash-workers:0}") int workers,
+                                                     @Value("${banking.password.queue-capacity:64}") int queueCapacity,
+                                                     MeterRegistry meterRegistry) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, new BCryptPasswordEncoder(strength));
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+
+        int threads = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        return new OffloadingPasswordEncoder(delegating, threads, queueCapacity, meterRegistry);
     }
 
     @Override
@@ -31,7 +52,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         http
                 .csrf().disable()
                 .authorizeRequests()
-                .antMatchers("/api/users/**").authenticated()
+                // Выгрузка и импорт затрагивают всех пользователей, поэтому одного входа для них мало
+                .antMatchers("/api/admin/**").hasAuthority(BankingUserDetails.ADMIN)
+                .antMatchers("/api/users/**", "/api/accounts/**").authenticated()
                 .and()
                 .addFilter(new JwtAuthenticationFilter(authenticationManager(), jwtUtil))
                 .addFilter(new JwtAuthorizationFilter(authenticationManager(), jwtUtil));
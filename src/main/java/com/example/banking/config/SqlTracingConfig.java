@@ -0,0 +1,84 @@
+package com.example.banking.config;
+
+import com.example.banking.sql.SqlBudgetFilter;
+import com.example.banking.sql.SqlTracingListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.function.SingletonSupplier;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * DataSource оборачивается datasource-proxy: SQL считаются по HTTP-запросам и проверяются бюджетом,
+ * а текст запросов пишется в лог com.example.banking.sql.queries на уровне DEBUG вместо spring.jpa.show-sql.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.sql.tracing.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTracingConfig {
+    private static final String QUERY_LOGGER = "com.example.banking.sql.queries";
+
+    @Bean
+    public SqlTracingListener sqlTracingListener(@Value("${banking.sql.slow-query-ms:200}") long slowQueryMs,
+                                                 MeterRegistry meterRegistry) {
+        return new SqlTracingListener(slowQueryMs, meterRegistry);
+    }
+
+    // static, чтобы постпроцессор создавался раньше остальных бинов конфигурации
+    @Bean
+    public static BeanPostProcessor sqlTracingDataSourcePostProcessor(ObjectProvider<SqlTracingListener> listener) {
+        // Слушатель нужен только с первым SQL: ему требуется MeterRegistry, а метрики пула зависят от самого DataSource
+        Supplier<SqlTracingListener> tracing = SingletonSupplier.of(listener::getObject);
+        QueryExecutionListener lazyListener = new QueryExecutionListener() {
+            @Override
+            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                tracing.get().beforeQuery(execInfo, queryInfoList);
+            }
+
+            @Override
+            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                tracing.get().afterQuery(execInfo, queryInfoList);
+            }
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create((DataSource) bean)
+                        .name(beanName)
+                        .listener(lazyListener)
+                        .logQueryBySlf4j(SLF4JLogLevel.DEBUG, QUERY_LOGGER)
+                        .multiline()
+                        .build();
+            }
+        };
+    }
+
+    // Раньше фильтров Spring Security, чтобы в счет попал и запрос учетных данных при входе
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(
+            MeterRegistry meterRegistry,
+            @Value("${banking.sql.budget.max-statements:25}") int maxStatements,
+            @Value("${banking.sql.budget.max-db-time-ms:250}") long maxDbTimeMs) {
+        FilterRegistrationBean<SqlBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlBudgetFilter(meterRegistry, maxStatements, maxDbTimeMs));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
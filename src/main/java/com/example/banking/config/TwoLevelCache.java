@@ -0,0 +1,175 @@
+package com.example.banking.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Кэш из двух уровней: ограниченный Caffeine в памяти процесса перед общим Redis.
+ * Изменения записываются в Redis и рассылаются остальным узлам, чтобы они сбросили свою локальную копию.
+ */
+class TwoLevelCache implements Cache {
+    // Версии инвалидаций по полосам ключей: память ограничена, а ложное совпадение полосы лишь пропускает одно заполнение
+    private static final int VERSION_STRIPES = 256;
+
+    private final String name;
+    private final Cache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final InvalidationPublisher publisher;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    TwoLevelCache(String name, Cache remote,
+                  com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+                  InvalidationPublisher publisher) {
+        this.name = name;
+        this.remote = remote;
+        this.local = local;
+        this.publisher = publisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        long version = version(localKey);
+        ValueWrapper remoteValue = remote.get(key);
+        if (remoteValue != null && remoteValue.get() != null) {
+            populate(localKey, remoteValue.get(), version);
+        }
+        return remoteValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        String localKey = localKey(key);
+        long version = version(localKey);
+        T value = remote.get(key, valueLoader);
+        if (value != null) {
+            populate(localKey, value, version);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        invalidated(localKey);
+        if (value != null) {
+            local.put(localKey, value);
+        }
+        publisher.publish(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String localKey = localKey(key);
+        long version = version(localKey);
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null) {
+            invalidated(localKey);
+            if (value != null) {
+                local.put(localKey, value);
+            }
+            publisher.publish(name, localKey);
+        } else if (existing.get() != null) {
+            populate(localKey, existing.get(), version);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        String localKey = localKey(key);
+        invalidated(localKey);
+        local.invalidate(localKey);
+        publisher.publish(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidatedAll();
+        local.invalidateAll();
+        publisher.publish(name, null);
+    }
+
+    // Вызывается при сообщении от другого узла; key == null означает очистку всего кэша
+    void evictLocal(String key) {
+        if (key == null) {
+            invalidatedAll();
+            local.invalidateAll();
+        } else {
+            invalidated(key);
+            local.invalidate(key);
+        }
+    }
+
+    // Значение из Redis попадает в память, только если с момента чтения ключ не инвалидировали:
+    // иначе evict, пришедший между чтением и записью, вернул бы устаревшую копию.
+    // Проверка внутри compute атомарна относительно invalidate того же ключа
+    private void populate(String localKey, Object value, long version) {
+        local.asMap().compute(localKey, (k, current) -> version(localKey) == version ? value : current);
+    }
+
+    // Версия увеличивается до сброса локальной копии, чтобы конкурентное заполнение увидело изменение
+    private void invalidated(String localKey) {
+        versions.incrementAndGet(stripe(localKey));
+    }
+
+    private void invalidatedAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+    }
+
+    private long version(String localKey) {
+        return versions.get(stripe(localKey));
+    }
+
+    private static int stripe(String localKey) {
+        return Math.floorMod(localKey.hashCode(), VERSION_STRIPES);
+    }
+
+    // Ключи Redis-кэша тоже строковые, поэтому строковое представление однозначно на всех узлах
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    interface InvalidationPublisher {
+        void publish(String cacheName, String key);
+    }
+}
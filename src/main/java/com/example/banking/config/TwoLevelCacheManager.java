@@ -0,0 +1,112 @@
+package com.example.banking.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Оборачивает каждый кэш Redis в {@link TwoLevelCache} и принимает сообщения об инвалидации от других узлов.
+ * Размер и TTL локального уровня задаются через banking.cache.local.{имя кэша}.max-size / ttl-ms;
+ * max-size = 0 отключает локальный уровень для этого кэша.
+ * Метрики cache.* публикуются для каждого уровня отдельно с тегом level (local, redis):
+ * промах локального уровня — это обращение в Redis, промах Redis — чтение из БД.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+    static final String INVALIDATION_CHANNEL = "cache:invalidation";
+    private static final String SEPARATOR = "|";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    TwoLevelCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate, Environment environment,
+                         MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 2 || parts[0].equals(nodeId)) {
+            return;
+        }
+        TwoLevelCache cache = twoLevelCaches.get(parts[1]);
+        if (cache != null) {
+            cache.evictLocal(parts.length == 3 ? parts[2] : null);
+        }
+    }
+
+    private Cache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote instanceof RedisCache) {
+            new RedisCacheMetrics((RedisCache) remote, Tags.of("level", "redis")).bindTo(meterRegistry);
+        }
+        long maxSize = cacheProperty(name, "max-size", 10_000L);
+        if (maxSize <= 0) {
+            return new TransactionAwareCacheDecorator(remote);
+        }
+
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(cacheProperty(name, "ttl-ms", 60_000L)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, Tags.of("level", "local"));
+        TwoLevelCache cache = new TwoLevelCache(name, remote, local, this::publishInvalidation);
+        twoLevelCaches.put(name, cache);
+        // Запись и сброс выполняются после коммита, чтобы другие узлы не перечитали еще незафиксированные данные
+        return new TransactionAwareCacheDecorator(cache);
+    }
+
+    private long cacheProperty(String cacheName, String property, long defaultValue) {
+        Long fallback = environment.getProperty("banking.cache.local." + property, Long.class, defaultValue);
+        return environment.getProperty("banking.cache.local." + cacheName + "." + property, Long.class, fallback);
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        String message = nodeId + SEPARATOR + cacheName + (key != null ? SEPARATOR + key : "");
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, message);
+        } catch (RuntimeException e) {
+            // Другие узлы получат свежие данные не позже истечения TTL локального уровня
+            log.warn("Failed to publish cache invalidation for {}", cacheName, e);
+        }
+    }
+}
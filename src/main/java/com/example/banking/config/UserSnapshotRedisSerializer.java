@@ -0,0 +1,90 @@
+package com.example.banking.config;
+
+import com.example.banking.dto.UserSnapshot;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Компактный бинарный формат {@link UserSnapshot}: байт версии, затем поля подряд без имен классов и метаданных.
+ * При несовместимом изменении формата меняется {@link #FORMAT_VERSION}, и кэш получает новый префикс ключей.
+ */
+public class UserSnapshotRedisSerializer implements RedisSerializer<UserSnapshot> {
+    public static final int FORMAT_VERSION = 1;
+
+    @Override
+    public byte[] serialize(UserSnapshot snapshot) throws SerializationException {
+        if (snapshot == null) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(snapshot.getId());
+            writeNullableString(out, snapshot.getName());
+            writeNullableString(out, snapshot.getDateOfBirth());
+            writeContacts(out, snapshot.getEmails());
+            writeContacts(out, snapshot.getPhones());
+        } catch (IOException e) {
+            throw new SerializationException("Cannot serialize user snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public UserSnapshot deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new SerializationException("Unsupported user snapshot format version: " + version);
+            }
+            long id = in.readLong();
+            String name = readNullableString(in);
+            String dateOfBirth = readNullableString(in);
+            List<UserSnapshot.Contact> emails = readContacts(in);
+            List<UserSnapshot.Contact> phones = readContacts(in);
+            return new UserSnapshot(id, name, dateOfBirth, emails, phones);
+        } catch (IOException e) {
+            throw new SerializationException("Cannot deserialize user snapshot", e);
+        }
+    }
+
+    private static void writeContacts(DataOutputStream out, List<UserSnapshot.Contact> contacts) throws IOException {
+        out.writeShort(contacts.size());
+        for (UserSnapshot.Contact contact : contacts) {
+            out.writeLong(contact.getId() != null ? contact.getId() : -1L);
+            writeNullableString(out, contact.getValue());
+        }
+    }
+
+    private static List<UserSnapshot.Contact> readContacts(DataInputStream in) throws IOException {
+        int size = in.readUnsignedShort();
+        List<UserSnapshot.Contact> contacts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long id = in.readLong();
+            contacts.add(new UserSnapshot.Contact(id >= 0 ? id : null, readNullableString(in)));
+        }
+        return List.copyOf(contacts);
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
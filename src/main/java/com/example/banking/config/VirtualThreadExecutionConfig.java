@@ -0,0 +1,43 @@
+package com.example.banking.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * banking.execution.mode=VIRTUAL: Tomcat обрабатывает каждый HTTP-запрос в отдельном виртуальном потоке,
+ * поэтому server.tomcat.threads.max больше не ограничивает число одновременных запросов.
+ * Ожидание Redis и JDBC тогда ограничивают пулы spring.redis.lettuce.pool.* и spring.datasource.hikari.*.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "banking.execution.mode", havingValue = "VIRTUAL")
+public class VirtualThreadExecutionConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("http-virtual-");
+        log.info("HTTP requests run on virtual threads (Java {})", Runtime.version());
+        return executor;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // Под этим именем Spring MVC берет исполнитель для StreamingResponseBody выгрузки /api/admin/users/export
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
@@ -1,13 +1,20 @@
 package com.example.banking.controller;
 
+import com.example.banking.dto.BatchTransferRequestDto;
+import com.example.banking.dto.BatchTransferResponseDto;
 import com.example.banking.dto.TransferRequestDto;
 import com.example.banking.exception.AccountNotFoundException;
 import com.example.banking.exception.ConcurrentTransactionException;
+import com.example.banking.exception.ErrorResponse;
 import com.example.banking.exception.InsufficientFundsException;
-import com.example.banking.security.JwtUtil;
+import com.example.banking.security.JwtPrincipal;
 import com.example.banking.service.AccountService;
+import com.example.banking.service.BatchTransferService;
+import com.example.banking.service.IdempotentTransferResult;
+import com.example.banking.service.IdempotentTransferService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
@@ -16,17 +23,51 @@ import javax.validation.Valid;
 @RequestMapping("/api/accounts")
 @RequiredArgsConstructor
 public class AccountController {
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final AccountService accountService;
-    private final JwtUtil jwtUtil;  // Добавляем JwtUtil как зависимость
+    private final IdempotentTransferService idempotentTransferService;
+    private final BatchTransferService batchTransferService;
 
     @PostMapping("/transfer")
     public ResponseEntity<?> transferMoney(
             @RequestBody @Valid TransferRequestDto transferDto,
-            @RequestHeader("Authorization") String token)
+            @AuthenticationPrincipal JwtPrincipal principal,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
             throws AccountNotFoundException, InsufficientFundsException, ConcurrentTransactionException {
 
-        Long fromUserId = jwtUtil.extractUserId(token);  // Вызываем метод через экземпляр
-        accountService.transferMoney(fromUserId, transferDto.getToUserId(), transferDto.getAmount());
-        return ResponseEntity.ok().build();
+        Long fromUserId = principal.requireUserId();
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            accountService.transferMoney(fromUserId, transferDto.getToUserId(), transferDto.getAmount());
+            return ResponseEntity.ok().build();
+        }
+        if (idempotencyKey.length() > 255) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("INVALID_IDEMPOTENCY_KEY", "Idempotency-Key must not exceed 255 characters"));
+        }
+
+        IdempotentTransferResult result = idempotentTransferService.transfer(
+                fromUserId, idempotencyKey, transferDto.getToUserId(), transferDto.getAmount());
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(result.getStatus())
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.isReplayed()));
+        if (result.getCode() == null) {
+            return response.build();
+        }
+        return response.body(new ErrorResponse(result.getCode(), result.getMessage()));
+    }
+
+    @PostMapping("/transfers/batch")
+    public ResponseEntity<BatchTransferResponseDto> transferBatch(
+            @RequestBody @Valid BatchTransferRequestDto batchDto,
+            @AuthenticationPrincipal JwtPrincipal principal) {
+
+        Long fromUserId = principal.requireUserId();
+        BatchTransferResponseDto result = batchTransferService.transferBatch(
+                fromUserId, batchDto.getTransfers(), batchDto.getMode());
+        // Пакет, в котором не проведен ни один перевод, считаем отклоненным целиком
+        return result.isCommitted()
+                ? ResponseEntity.ok(result)
+                : ResponseEntity.unprocessableEntity().body(result);
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,15 @@
 package com.example.banking.controller;
 
+import com.example.banking.dto.CursorPage;
 import com.example.banking.dto.UserSearchDto;
+import com.example.banking.dto.UserSnapshot;
 import com.example.banking.dto.UserUpdateDto;
-import com.example.banking.model.User;
-import com.example.banking.security.JwtUtil;
+import com.example.banking.security.JwtPrincipal;
 import com.example.banking.service.UserService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
@@ -19,15 +18,16 @@ import javax.validation.Valid;
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserService userService;
-    private final JwtUtil jwtUtil;
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUser(
+    public ResponseEntity<UserSnapshot> getUser(
             @PathVariable Long id,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
 
-        Long currentUserId = jwtUtil.extractUserId(token);
+        Long currentUserId = principal.requireUserId();
         if (!currentUserId.equals(id)) {
             throw new AccessDeniedException("You can only access your own data");
         }
@@ -36,26 +36,27 @@ public class UserController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<User>> searchUsers(
+    public ResponseEntity<CursorPage<UserSnapshot>> searchUsers(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String dateOfBirth,
             @RequestParam(required = false) String email,
             @RequestParam(required = false) String phone,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean count) {
 
         UserSearchDto searchDto = new UserSearchDto(name, dateOfBirth, email, phone);
-        Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(userService.searchUsers(searchDto, pageable));
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(userService.searchUsers(searchDto, cursor, pageSize, count));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(
+    public ResponseEntity<UserSnapshot> updateUser(
             @PathVariable Long id,
             @RequestBody @Valid UserUpdateDto updateDto,
-            @RequestHeader("Authorization") String token) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
 
-        Long userIdFromToken = jwtUtil.extractUserId(token); // Используем внедренный экземпляр
+        Long userIdFromToken = principal.requireUserId();
         if (!id.equals(userIdFromToken)) {
             throw new AccessDeniedException("You can only update your own data");
         }
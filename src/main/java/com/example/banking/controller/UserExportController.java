@@ -0,0 +1,32 @@
+package com.example.banking.controller;
+
+import com.example.banking.service.UserExportFormat;
+import com.example.banking.service.UserExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Выгрузка отдает остатки и контакты всех пользователей: доступна только с правом ADMIN (SecurityConfig)
+// и, как и импорт, выключена по умолчанию
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.export.endpoint-enabled", havingValue = "true")
+public class UserExportController {
+    private final UserExportService userExportService;
+
+    // Полная выгрузка потоком; при обрыве выгрузка продолжается с cursor последней полученной строки
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String cursor) {
+
+        UserExportFormat exportFormat = UserExportFormat.of(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(userExportService.export(exportFormat, cursor));
+    }
+}
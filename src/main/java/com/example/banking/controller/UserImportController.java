@@ -0,0 +1,30 @@
+package com.example.banking.controller;
+
+import com.example.banking.importer.UserImportFormat;
+import com.example.banking.importer.UserImportReport;
+import com.example.banking.importer.UserImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+// Импорт создает пользователей от имени сервиса: доступен только с правом ADMIN (SecurityConfig)
+// и выключен по умолчанию, включается только на служебных экземплярах
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.import.endpoint-enabled", havingValue = "true")
+public class UserImportController {
+    private final UserImportService userImportService;
+
+    // Тело читается потоком, без буферизации всего файла в памяти
+    @PostMapping("/import")
+    public ResponseEntity<UserImportReport> importUsers(
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(request.getInputStream(), UserImportFormat.of(format)));
+    }
+}
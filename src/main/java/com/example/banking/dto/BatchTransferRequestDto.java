@@ -0,0 +1,18 @@
+package com.example.banking.dto;
+
+import com.example.banking.service.BatchTransferMode;
+import lombok.Data;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+public class BatchTransferRequestDto {
+    @NotNull
+    private BatchTransferMode mode = BatchTransferMode.ALL_OR_NOTHING;
+
+    @NotEmpty(message = "At least one transfer must be provided")
+    private List<@Valid @NotNull TransferRequestDto> transfers;
+}
@@ -0,0 +1,27 @@
+package com.example.banking.dto;
+
+import com.example.banking.service.BatchTransferMode;
+import com.example.banking.service.TransferOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchTransferResponseDto {
+    private BatchTransferMode mode;
+    private boolean committed;
+    private int completedCount;
+    private List<Item> results;
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private int index;
+        private Long toUserId;
+        private BigDecimal amount;
+        private TransferOutcome outcome;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Страница keyset-пагинации: nextCursor передается в следующий запрос как есть,
+ * totalElements заполняется только по запросу, потому что COUNT сканирует всю выборку.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long totalElements;
+}
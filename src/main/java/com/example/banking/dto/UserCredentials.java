@@ -0,0 +1,17 @@
+package com.example.banking.dto;
+
+import lombok.Value;
+
+import java.io.Serializable;
+
+/**
+ * Только то, что нужно Spring Security для входа; кэшируется в "credentials" по имени пользователя.
+ */
+@Value
+public class UserCredentials implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    Long id;
+    String name;
+    String password;
+}
@@ -0,0 +1,20 @@
+package com.example.banking.dto;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Строка выгрузки пользователей; cursor позволяет продолжить прерванную выгрузку со следующей строки.
+ */
+@Value
+public class UserExportRow {
+    long id;
+    String name;
+    String dateOfBirth;
+    BigDecimal balance;
+    List<String> emails;
+    List<String> phones;
+    String cursor;
+}
@@ -0,0 +1,50 @@
+package com.example.banking.dto;
+
+import com.example.banking.model.EmailData;
+import com.example.banking.model.PhoneData;
+import com.example.banking.model.User;
+import lombok.Value;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Плоский неизменяемый снимок пользователя для кэша "users": без пароля, связей Hibernate и остатка,
+ * который меняется переводами без сброса кэша. Serializable для banking.cache.users.format=JDK.
+ */
+@Value
+public class UserSnapshot implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    Long id;
+    String name;
+    String dateOfBirth;
+    List<Contact> emails;
+    List<Contact> phones;
+
+    @Value
+    public static class Contact implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        Long id;
+        String value;
+    }
+
+    public static UserSnapshot from(User user) {
+        List<Contact> emails = new ArrayList<>(user.getEmails().size());
+        for (EmailData email : user.getEmails()) {
+            emails.add(new Contact(email.getId(), email.getEmail()));
+        }
+        List<Contact> phones = new ArrayList<>(user.getPhones().size());
+        for (PhoneData phone : user.getPhones()) {
+            phones.add(new Contact(phone.getId(), phone.getPhone()));
+        }
+        // Порядок контактов стабилен, иначе одинаковые снимки сериализуются по-разному
+        Comparator<Contact> byId = Comparator.comparing(Contact::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+        emails.sort(byId);
+        phones.sort(byId);
+        return new UserSnapshot(user.getId(), user.getName(), user.getDateOfBirth(), List.copyOf(emails), List.copyOf(phones));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.banking.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Batch is too large")
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(int maxSize) {
+        super("Batch must not exceed " + maxSize + " transfers");
+    }
+}
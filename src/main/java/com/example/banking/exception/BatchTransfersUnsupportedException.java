@@ -0,0 +1,12 @@
+package com.example.banking.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BatchTransfersUnsupportedException extends RuntimeException {
+
+    public BatchTransfersUnsupportedException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.banking.exception;
 
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -25,4 +26,22 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    // Запрос корректен, но текущий banking.transfer.mode его не поддерживает
+    @ExceptionHandler(value = {BatchTransfersUnsupportedException.class})
+    public ResponseEntity<ErrorResponse> handleBatchTransfersUnsupportedException(BatchTransfersUnsupportedException ex) {
+        ErrorResponse error = new ErrorResponse(
+                "BATCH_TRANSFERS_UNSUPPORTED",
+                ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    // Соединение с БД не получено за spring.datasource.hikari.connection-timeout, либо БД или Redis недоступны
+    @ExceptionHandler(value = {DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleDataAccessResourceFailureException(DataAccessResourceFailureException ex) {
+        ErrorResponse error = new ErrorResponse(
+                "STORAGE_UNAVAILABLE",
+                "Storage is temporarily unavailable, retry later");
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.banking.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid search parameter")
+public class InvalidSearchParameterException extends RuntimeException {
+
+    public InvalidSearchParameterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.banking.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Перевод отклонен до каких-либо изменений: журнал LEDGER остановлен после ошибки ввода-вывода
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Ledger is unavailable")
+public class LedgerUnavailableException extends RuntimeException {
+
+    public LedgerUnavailableException(String message) {
+        super(message);
+    }
+
+    public LedgerUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.banking.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Ошибка после того, как перевод мог быть применен: повторять его с новым ключом без сверки остатка нельзя
+@ResponseStatus(value = HttpStatus.INTERNAL_SERVER_ERROR, reason = "Transfer outcome is unknown")
+public class TransferOutcomeUnknownException extends RuntimeException {
+
+    public TransferOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
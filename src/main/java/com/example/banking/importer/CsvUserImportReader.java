@@ -0,0 +1,143 @@
+package com.example.banking.importer;
+
+import com.example.banking.exception.InvalidImportFileException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV по RFC 4180 с обязательной строкой заголовка:
+ * name,date_of_birth,password,emails,phones,initial_deposit (порядок колонок произвольный).
+ */
+class CsvUserImportReader extends UserImportReader {
+    static final String[] COLUMNS = {"name", "date_of_birth", "password", "emails", "phones", "initial_deposit"};
+
+    private final int[] columnIndex = new int[COLUMNS.length];
+    private long line = 1;
+    private boolean eof;
+
+    CsvUserImportReader(BufferedReader reader) throws IOException {
+        super(reader);
+        List<String> header = readRow();
+        if (header == null) {
+            throw new InvalidImportFileException("CSV header is missing");
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            positions.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (int i = 0; i < COLUMNS.length; i++) {
+            Integer position = positions.get(COLUMNS[i]);
+            if (position == null) {
+                throw new InvalidImportFileException("CSV header must contain column " + COLUMNS[i]);
+            }
+            columnIndex[i] = position;
+        }
+    }
+
+    @Override
+    public UserImportRecord next() throws IOException {
+        List<String> row;
+        long rowLine;
+        do {
+            rowLine = line;
+            try {
+                row = readRow();
+            } catch (MalformedRowException e) {
+                return UserImportRecord.malformed(rowLine, e.getMessage());
+            }
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isEmpty());
+
+        if (row.size() < maxColumnIndex() + 1) {
+            return UserImportRecord.malformed(rowLine, "Expected at least " + (maxColumnIndex() + 1) + " columns");
+        }
+        return UserImportRecord.of(rowLine,
+                row.get(columnIndex[0]),
+                row.get(columnIndex[1]),
+                row.get(columnIndex[2]),
+                splitValues(row.get(columnIndex[3])),
+                splitValues(row.get(columnIndex[4])),
+                row.get(columnIndex[5]));
+    }
+
+    private int maxColumnIndex() {
+        int max = 0;
+        for (int index : columnIndex) {
+            max = Math.max(max, index);
+        }
+        return max;
+    }
+
+    // Поле в кавычках может содержать запятые, переводы строк и удвоенные кавычки
+    private List<String> readRow() throws IOException {
+        if (eof) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean started = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            started = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(stripCarriageReturn(field));
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+        eof = true;
+        if (quoted) {
+            throw new MalformedRowException("Unterminated quoted field");
+        }
+        if (!started) {
+            return null;
+        }
+        fields.add(stripCarriageReturn(field));
+        return fields;
+    }
+
+    private static String stripCarriageReturn(StringBuilder field) {
+        int length = field.length();
+        return length > 0 && field.charAt(length - 1) == '\r' ? field.substring(0, length - 1) : field.toString();
+    }
+
+    private static final class MalformedRowException extends IOException {
+        MalformedRowException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.banking.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Один JSON-объект на строку:
+ * {"name":..., "dateOfBirth":"DD.MM.YYYY", "password":..., "emails":[...], "phones":[...], "initialDeposit":100.00}.
+ */
+class NdjsonUserImportReader extends UserImportReader {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private long line;
+
+    NdjsonUserImportReader(BufferedReader reader) {
+        super(reader);
+    }
+
+    @Override
+    public UserImportRecord next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(text);
+        } catch (JsonProcessingException e) {
+            return UserImportRecord.malformed(line, "Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return UserImportRecord.malformed(line, "Expected a JSON object");
+        }
+        return UserImportRecord.of(line,
+                text(node, "name"),
+                text(node, "dateOfBirth"),
+                text(node, "password"),
+                values(node.get("emails")),
+                values(node.get("phones")),
+                text(node, "initialDeposit"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static List<String> values(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return new ArrayList<>();
+        }
+        if (!node.isArray()) {
+            return splitValues(node.asText());
+        }
+        List<String> values = new ArrayList<>(node.size());
+        for (JsonNode value : node) {
+            values.add(value.asText().trim());
+        }
+        return values;
+    }
+}
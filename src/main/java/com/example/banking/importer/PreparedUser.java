@@ -0,0 +1,22 @@
+package com.example.banking.importer;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Проверенная запись с уже вычисленным хешем пароля; готова к загрузке через COPY.
+ */
+@Value
+class PreparedUser {
+    long lineNumber;
+    String name;
+    String dateOfBirth;
+    LocalDate birthDate;
+    String passwordHash;
+    List<String> emails;
+    List<String> phones;
+    BigDecimal initialDeposit;
+}
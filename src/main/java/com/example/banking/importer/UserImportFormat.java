@@ -0,0 +1,24 @@
+package com.example.banking.importer;
+
+import com.example.banking.exception.InvalidImportFileException;
+
+import java.util.Locale;
+
+public enum UserImportFormat {
+    CSV,
+    NDJSON;
+
+    public static UserImportFormat of(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImportFileException("Unsupported import format: " + value);
+        }
+    }
+
+    // Для CLI: формат по расширению файла, по умолчанию CSV
+    public static UserImportFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".ndjson") || lower.endsWith(".jsonl") ? NDJSON : CSV;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.banking.importer;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Загружает пачку пользователей одной транзакцией: COPY во временные staging-таблицы,
+ * отсев конфликтов с уже существующими email и телефонами и перенос в users, account, email_data, phone_data.
+ */
+@Component
+@RequiredArgsConstructor
+class UserImportLoader {
+    // Совпадает с increment_size последовательностей (V10, V11): nextval резервирует блок из 50 id, как у Hibernate pooled-lo
+    static final int ID_ALLOCATION_SIZE = 50;
+
+    private static final String CREATE_STAGING =
+            "CREATE TEMP TABLE IF NOT EXISTS import_users (line_no BIGINT, user_id BIGINT, account_id BIGINT, " +
+                    "name VARCHAR(500), date_of_birth VARCHAR(10), birth_date DATE, password VARCHAR(500), " +
+                    "initial_deposit NUMERIC(19,2)) ON COMMIT DELETE ROWS;" +
+                    "CREATE TEMP TABLE IF NOT EXISTS import_emails (id BIGINT, user_id BIGINT, email VARCHAR(200)) " +
+                    "ON COMMIT DELETE ROWS;" +
+                    "CREATE TEMP TABLE IF NOT EXISTS import_phones (id BIGINT, user_id BIGINT, phone VARCHAR(13)) " +
+                    "ON COMMIT DELETE ROWS";
+
+    private static final String REJECT_CONFLICTS =
+            "DELETE FROM import_users u " +
+                    "WHERE EXISTS (SELECT 1 FROM import_emails s JOIN email_data e ON e.email = s.email WHERE s.user_id = u.user_id) " +
+                    "OR EXISTS (SELECT 1 FROM import_phones s JOIN phone_data p ON p.phone = s.phone WHERE s.user_id = u.user_id) " +
+                    "RETURNING line_no";
+
+    private static final String MERGE =
+            "INSERT INTO users (id, name, date_of_birth, birth_date, password) " +
+                    "SELECT user_id, name, date_of_birth, birth_date, password FROM import_users;" +
+                    "INSERT INTO account (id, user_id, balance, initial_deposit) " +
+                    "SELECT account_id, user_id, initial_deposit, initial_deposit FROM import_users;" +
+                    "INSERT INTO email_data (id, user_id, email) " +
+                    "SELECT s.id, s.user_id, s.email FROM import_emails s JOIN import_users u ON u.user_id = s.user_id;" +
+                    "INSERT INTO phone_data (id, user_id, phone) " +
+                    "SELECT s.id, s.user_id, s.phone FROM import_phones s JOIN import_users u ON u.user_id = s.user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * @return номера строк, отклоненных из-за email или телефона, которые уже есть в БД
+     */
+    List<Long> load(List<PreparedUser> users) {
+        return transactionTemplate.execute(status -> {
+            StagedRows rows = stage(users);
+            return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> copyAndMerge(connection, rows));
+        });
+    }
+
+    private StagedRows stage(List<PreparedUser> users) {
+        int emailCount = 0;
+        int phoneCount = 0;
+        for (PreparedUser user : users) {
+            emailCount += user.getEmails().size();
+            phoneCount += user.getPhones().size();
+        }
+        long[] userIds = allocateIds("users_seq", users.size());
+        long[] accountIds = allocateIds("account_seq", users.size());
+        long[] emailIds = allocateIds("email_data_seq", emailCount);
+        long[] phoneIds = allocateIds("phone_data_seq", phoneCount);
+
+        StagedRows rows = new StagedRows();
+        int email = 0;
+        int phone = 0;
+        for (int i = 0; i < users.size(); i++) {
+            PreparedUser user = users.get(i);
+            rows.users.append(user.getLineNumber()).append(',')
+                    .append(userIds[i]).append(',')
+                    .append(accountIds[i]).append(',');
+            appendCsv(rows.users, user.getName()).append(',');
+            appendCsv(rows.users, user.getDateOfBirth()).append(',')
+                    .append(user.getBirthDate()).append(',');
+            appendCsv(rows.users, user.getPasswordHash()).append(',')
+                    .append(user.getInitialDeposit().toPlainString()).append('\n');
+            for (String value : user.getEmails()) {
+                rows.emails.append(emailIds[email++]).append(',').append(userIds[i]).append(',');
+                appendCsv(rows.emails, value).append('\n');
+            }
+            for (String value : user.getPhones()) {
+                rows.phones.append(phoneIds[phone++]).append(',').append(userIds[i]).append(',');
+                appendCsv(rows.phones, value).append('\n');
+            }
+        }
+        return rows;
+    }
+
+    private List<Long> copyAndMerge(Connection connection, StagedRows rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING);
+        }
+
+        CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+        try {
+            copy.copyIn("COPY import_users (line_no, user_id, account_id, name, date_of_birth, birth_date, password, " +
+                    "initial_deposit) FROM STDIN WITH (FORMAT csv)", new StringReader(rows.users.toString()));
+            copy.copyIn("COPY import_emails (id, user_id, email) FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(rows.emails.toString()));
+            copy.copyIn("COPY import_phones (id, user_id, phone) FROM STDIN WITH (FORMAT csv)",
+                    new StringReader(rows.phones.toString()));
+        } catch (IOException e) {
+            throw new SQLException("COPY into import staging tables failed", e);
+        }
+
+        // Без статистики по временным таблицам планировщик выбирает nested loop по всей email_data
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE import_users, import_emails, import_phones");
+        }
+        List<Long> rejected = jdbcTemplate.queryForList(REJECT_CONFLICTS, Long.class);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(MERGE);
+        }
+        return rejected;
+    }
+
+    private long[] allocateIds(String sequence, int count) {
+        long[] ids = new long[count];
+        if (count == 0) {
+            return ids;
+        }
+        int blocks = (count + ID_ALLOCATION_SIZE - 1) / ID_ALLOCATION_SIZE;
+        List<Long> starts = jdbcTemplate.queryForList(
+                "SELECT nextval(?::regclass) FROM generate_series(1, ?)", Long.class, sequence, blocks);
+        for (int i = 0; i < count; i++) {
+            ids[i] = starts.get(i / ID_ALLOCATION_SIZE) + i % ID_ALLOCATION_SIZE;
+        }
+        return ids;
+    }
+
+    static StringBuilder appendCsv(StringBuilder out, String value) {
+        if (value == null) {
+            return out;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        return out.append('"');
+    }
+
+    private static final class StagedRows {
+        final StringBuilder users = new StringBuilder();
+        final StringBuilder emails = new StringBuilder();
+        final StringBuilder phones = new StringBuilder();
+    }
+}
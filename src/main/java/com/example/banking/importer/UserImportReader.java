@@ -0,0 +1,52 @@
+package com.example.banking.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение файла импорта по одной записи: в памяти держится только текущая строка.
+ */
+public abstract class UserImportReader implements Closeable {
+    protected final BufferedReader reader;
+
+    protected UserImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    public static UserImportReader open(InputStream input, UserImportFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        return format == UserImportFormat.NDJSON ? new NdjsonUserImportReader(reader) : new CsvUserImportReader(reader);
+    }
+
+    /**
+     * Следующая запись или null в конце файла. Ошибка разбора строки не прерывает чтение,
+     * а возвращается как запись с заполненным error.
+     */
+    public abstract UserImportRecord next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Несколько email или телефонов в одной ячейке разделяются ';'
+    static List<String> splitValues(String cell) {
+        List<String> values = new ArrayList<>();
+        if (cell == null) {
+            return values;
+        }
+        for (String value : cell.split(";")) {
+            String trimmed = value.trim();
+            if (!trimmed.isEmpty()) {
+                values.add(trimmed);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.banking.importer;
+
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Сырая строка входного файла: значения еще не проверены, error заполнен, если строку не удалось разобрать.
+ */
+@Value
+public class UserImportRecord {
+    long lineNumber;
+    String name;
+    String dateOfBirth;
+    String password;
+    List<String> emails;
+    List<String> phones;
+    String initialDeposit;
+    String error;
+
+    public static UserImportRecord of(long lineNumber, String name, String dateOfBirth, String password,
+                                      List<String> emails, List<String> phones, String initialDeposit) {
+        return new UserImportRecord(lineNumber, name, dateOfBirth, password, emails, phones, initialDeposit, null);
+    }
+
+    public static UserImportRecord malformed(long lineNumber, String error) {
+        return new UserImportRecord(lineNumber, null, null, null,
+                Collections.emptyList(), Collections.emptyList(), null, error);
+    }
+}
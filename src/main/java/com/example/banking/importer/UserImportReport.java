@@ -0,0 +1,23 @@
+package com.example.banking.importer;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class UserImportReport {
+    long received;
+    long imported;
+    long rejected;
+    long failed;
+    long elapsedMs;
+    double usersPerSecond;
+    // Первые banking.import.max-reported-rejections отказов, остальные только посчитаны
+    List<Rejection> rejections;
+
+    @Value
+    public static class Rejection {
+        long line;
+        String reason;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.banking.importer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Импорт из командной строки:
+ * java -jar app.jar --banking.import.file=users.csv [--banking.import.format=ndjson].
+ * После импорта приложение завершается; код выхода 1, если хотя бы одна пачка не загрузилась.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "banking.import.file")
+public class UserImportRunner implements ApplicationRunner {
+    private final UserImportService userImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${banking.import.file}")
+    private String file;
+
+    @Value("${banking.import.format:}")
+    private String format;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = Paths.get(file);
+        UserImportFormat importFormat = format.isBlank()
+                ? UserImportFormat.fromFileName(path.getFileName().toString())
+                : UserImportFormat.of(format);
+
+        UserImportReport report;
+        try (InputStream input = Files.newInputStream(path)) {
+            report = userImportService.importUsers(input, importFormat);
+        }
+        for (UserImportReport.Rejection rejection : report.getRejections()) {
+            log.warn("Line {} skipped: {}", rejection.getLine(), rejection.getReason());
+        }
+        System.exit(SpringApplication.exit(context, () -> report.getFailed() > 0 ? 1 : 0));
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.banking.importer;
+
+import com.example.banking.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+/**
+ * Массовый импорт пользователей. Файл читается потоково и режется на пачки; пачки проверяются
+ * и хешируют пароли параллельно на пуле, а загружаются через COPY по одной в порядке чтения.
+ * Число пачек в работе ограничено, поэтому чтение ждет загрузку и память не растет с размером файла.
+ */
+@Slf4j
+@Service
+public class UserImportService {
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Pattern PHONE = Pattern.compile("^\\d{11}$");
+
+    private final UserImportLoader loader;
+    private final PasswordEncoder passwordEncoder;
+    private final ExecutorService workers;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+
+    @Value("${banking.import.max-reported-rejections:100}")
+    private int maxReportedRejections = 100;
+
+    public UserImportService(UserImportLoader loader,
+                             PasswordEncoder passwordEncoder,
+                             @Value("${banking.import.chunk-size:500}") int chunkSize,
+                             @Value("${banking.import.hash-workers:0}") int hashWorkers,
+                             @Value("${banking.import.max-chunks-in-flight:0}") int maxChunksInFlight) {
+        this.loader = loader;
+        this.passwordEncoder = passwordEncoder;
+        this.chunkSize = chunkSize;
+        int threads = hashWorkers > 0 ? hashWorkers : Runtime.getRuntime().availableProcessors();
+        // BCrypt - самая дорогая стадия, поэтому в очереди держим по две пачки на поток хеширования
+        this.maxChunksInFlight = maxChunksInFlight > 0 ? maxChunksInFlight : threads * 2;
+        this.workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("user-import-"));
+    }
+
+    public UserImportReport importUsers(InputStream input, UserImportFormat format) throws IOException {
+        long startedAt = System.nanoTime();
+        Tally tally = new Tally(maxReportedRejections);
+        Deque<Future<PreparedChunk>> inFlight = new ArrayDeque<>();
+
+        try (UserImportReader reader = UserImportReader.open(input, format)) {
+            List<UserImportRecord> chunk = new ArrayList<>(chunkSize);
+            for (UserImportRecord record = reader.next(); record != null; record = reader.next()) {
+                tally.received++;
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    submit(chunk, inFlight, tally);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(chunk, inFlight, tally);
+            }
+            while (!inFlight.isEmpty()) {
+                load(inFlight.poll(), tally);
+            }
+        } finally {
+            // Файл оборвался или загрузка прервана: уже загруженные пачки остаются, остальные отменяем
+            for (Future<PreparedChunk> pending : inFlight) {
+                pending.cancel(true);
+            }
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        UserImportReport report = new UserImportReport(tally.received, tally.imported, tally.rejected, tally.failed,
+                elapsedMs, tally.imported * 1000.0 / elapsedMs, tally.rejections);
+        log.info("User import finished: {} received, {} imported, {} rejected, {} failed in {} ms ({} users/s)",
+                report.getReceived(), report.getImported(), report.getRejected(), report.getFailed(),
+                elapsedMs, Math.round(report.getUsersPerSecond()));
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void submit(List<UserImportRecord> chunk, Deque<Future<PreparedChunk>> inFlight, Tally tally) {
+        // Обратное давление: пока самая старая пачка не загружена, следующая не читается
+        if (inFlight.size() >= maxChunksInFlight) {
+            load(inFlight.poll(), tally);
+        }
+        inFlight.add(workers.submit(() -> prepare(chunk)));
+    }
+
+    private void load(Future<PreparedChunk> pending, Tally tally) {
+        PreparedChunk chunk;
+        try {
+            chunk = pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for import chunk", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import chunk preparation failed", e.getCause());
+        }
+        for (UserImportReport.Rejection rejection : chunk.rejections) {
+            tally.reject(rejection.getLine(), rejection.getReason());
+        }
+
+        List<PreparedUser> users = dropDuplicatesWithinChunk(chunk.users, tally);
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            List<Long> conflicts = loader.load(users);
+            tally.imported += users.size() - conflicts.size();
+            for (Long line : conflicts) {
+                tally.reject(line, "Email or phone already exists");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Import chunk starting at line {} failed", users.get(0).getLineNumber(), e);
+            for (PreparedUser user : users) {
+                tally.fail(user.getLineNumber(), "Chunk load failed: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    // Внутри пачки выигрывает первая строка; повторы из разных пачек отсеет проверка по БД при загрузке
+    private static List<PreparedUser> dropDuplicatesWithinChunk(List<PreparedUser> users, Tally tally) {
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        List<PreparedUser> unique = new ArrayList<>(users.size());
+        for (PreparedUser user : users) {
+            boolean duplicate = user.getEmails().stream().anyMatch(emails::contains)
+                    || user.getPhones().stream().anyMatch(phones::contains);
+            if (duplicate) {
+                tally.reject(user.getLineNumber(), "Email or phone is duplicated in the import file");
+                continue;
+            }
+            emails.addAll(user.getEmails());
+            phones.addAll(user.getPhones());
+            unique.add(user);
+        }
+        return unique;
+    }
+
+    private PreparedChunk prepare(List<UserImportRecord> records) {
+        PreparedChunk chunk = new PreparedChunk(records.size());
+        for (UserImportRecord record : records) {
+            String error = validate(record);
+            if (error != null) {
+                chunk.rejections.add(new UserImportReport.Rejection(record.getLineNumber(), error));
+                continue;
+            }
+            LocalDate birthDate = User.parseDateOfBirth(record.getDateOfBirth());
+            chunk.users.add(new PreparedUser(record.getLineNumber(), record.getName(), record.getDateOfBirth(),
+                    birthDate, passwordEncoder.encode(record.getPassword()), record.getEmails(), record.getPhones(),
+                    new BigDecimal(record.getInitialDeposit().trim()).stripTrailingZeros().setScale(2)));
+        }
+        return chunk;
+    }
+
+    // Правила совпадают с UserUpdateDto и ограничениями колонок
+    static String validate(UserImportRecord record) {
+        if (record.getError() != null) {
+            return record.getError();
+        }
+        if (record.getName() == null || record.getName().isBlank() || record.getName().length() > 500) {
+            return "Name must be between 1 and 500 characters";
+        }
+        if (User.parseDateOfBirth(record.getDateOfBirth()) == null) {
+            return "Date of birth must be in format DD.MM.YYYY";
+        }
+        if (record.getPassword() == null || record.getPassword().length() < 8 || record.getPassword().length() > 500) {
+            return "Password must be between 8 and 500 characters";
+        }
+        if (record.getEmails().isEmpty() || record.getPhones().isEmpty()) {
+            return "At least one email and one phone must be provided";
+        }
+        for (String email : record.getEmails()) {
+            if (email.length() > 200 || !EMAIL.matcher(email).matches()) {
+                return "Invalid email: " + email;
+            }
+        }
+        for (String phone : record.getPhones()) {
+            if (!PHONE.matcher(phone).matches()) {
+                return "Phone must be 11 digits: " + phone;
+            }
+        }
+        if (new HashSet<>(record.getEmails()).size() < record.getEmails().size()
+                || new HashSet<>(record.getPhones()).size() < record.getPhones().size()) {
+            return "Email or phone is repeated within the record";
+        }
+        BigDecimal deposit;
+        try {
+            deposit = record.getInitialDeposit() == null ? null : new BigDecimal(record.getInitialDeposit().trim());
+        } catch (NumberFormatException e) {
+            deposit = null;
+        }
+        if (deposit == null || deposit.signum() < 0 || deposit.stripTrailingZeros().scale() > 2
+                || deposit.precision() - deposit.scale() > 17) {
+            return "Initial deposit must be a non-negative amount with at most 2 decimal places";
+        }
+        return null;
+    }
+
+    private static final class PreparedChunk {
+        final List<PreparedUser> users;
+        final List<UserImportReport.Rejection> rejections = new ArrayList<>();
+
+        PreparedChunk(int size) {
+            this.users = new ArrayList<>(size);
+        }
+    }
+
+    private static final class Tally {
+        final int maxReportedRejections;
+        final List<UserImportReport.Rejection> rejections = new ArrayList<>();
+        long received;
+        long imported;
+        long rejected;
+        long failed;
+
+        Tally(int maxReportedRejections) {
+            this.maxReportedRejections = maxReportedRejections;
+        }
+
+        void reject(long line, String reason) {
+            rejected++;
+            sample(line, reason);
+        }
+
+        void fail(long line, String reason) {
+            failed++;
+            sample(line, reason);
+        }
+
+        private void sample(long line, String reason) {
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new UserImportReport.Rejection(line, reason));
+            }
+        }
+    }
+}
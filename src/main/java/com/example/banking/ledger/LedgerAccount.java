@@ -0,0 +1,18 @@
+package com.example.banking.ledger;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Остаток в копейках и еще не сброшенная в БД дельта; поля меняются только под lock
+final class LedgerAccount {
+    final long userId;
+    final ReentrantLock lock = new ReentrantLock();
+    long balanceCents;
+    long pendingDeltaCents;
+    long lastTouchedAt;
+
+    LedgerAccount(long userId, long balanceCents) {
+        this.userId = userId;
+        this.balanceCents = balanceCents;
+        this.lastTouchedAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.banking.ledger;
+
+import com.example.banking.exception.AccountNotFoundException;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.LedgerUnavailableException;
+import com.example.banking.exception.TransferOutcomeUnknownException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Переводы по остаткам в памяти с журналом на диске и отложенной записью дельт в таблицу account.
+ * Рассчитан на один экземпляр приложения: остатки других узлов он не видит.
+ * После ошибки журнала сервис останавливается (fail-stop): остатки в памяти могут содержать переводы,
+ * не дошедшие до диска, поэтому ни переводы, ни сброс в БД больше не выполняются, а после перезапуска
+ * состояние восстанавливается из БД и журнала.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "banking.transfer.mode", havingValue = "LEDGER")
+public class LedgerService {
+    private final ConcurrentHashMap<Long, LedgerAccount> accounts = new ConcurrentHashMap<>();
+    // Переводы берут read lock, сброс - write lock: снимок дельт и ротация журнала происходят атомарно
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final LedgerStore store;
+    private final Path journalDirectory;
+    private final TransferJournal journal;
+    private long lastFlushedSegment;
+
+    @Value("${banking.ledger.idle-eviction-ms:60000}")
+    private long idleEvictionMs = 60000;
+
+    public LedgerService(JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         @Value("${banking.ledger.journal-dir:ledger-journal}") String journalDir,
+                         @Value("${banking.ledger.journal-id:default}") String journalId) throws IOException {
+        this.store = new LedgerStore(jdbcTemplate, transactionTemplate, journalId);
+        this.journalDirectory = Paths.get(journalDir);
+        long nextSegment = recover();
+        this.lastFlushedSegment = nextSegment - 1;
+        this.journal = new TransferJournal(journalDirectory, nextSegment);
+    }
+
+    public void transfer(long fromUserId, long toUserId, BigDecimal amount) throws AccountNotFoundException {
+        long amountCents = toCents(amount);
+        long position;
+        if (journal.isFailed()) {
+            throw new LedgerUnavailableException("Ledger is stopped after a journal failure, restart required");
+        }
+
+        flushLock.readLock().lock();
+        try {
+            LedgerAccount source = account(fromUserId, "Sender account not found");
+            LedgerAccount target = account(toUserId, "Recipient account not found");
+            if (source == target) {
+                checkSelfTransfer(source, amountCents);
+                return;
+            }
+
+            LedgerAccount first = fromUserId < toUserId ? source : target;
+            LedgerAccount second = first == source ? target : source;
+            first.lock.lock();
+            second.lock.lock();
+            try {
+                if (source.balanceCents < amountCents) {
+                    throw new InsufficientFundsException("Not enough balance");
+                }
+                try {
+                    position = journal.append(fromUserId, toUserId, amountCents);
+                } catch (UncheckedIOException e) {
+                    throw new LedgerUnavailableException("Transfer journal is unavailable", e);
+                }
+                source.balanceCents -= amountCents;
+                source.pendingDeltaCents -= amountCents;
+                target.balanceCents += amountCents;
+                target.pendingDeltaCents += amountCents;
+                source.lastTouchedAt = target.lastTouchedAt = System.currentTimeMillis();
+            } finally {
+                second.lock.unlock();
+                first.lock.unlock();
+            }
+        } finally {
+            flushLock.readLock().unlock();
+        }
+
+        // Блокировки уже отпущены: более поздние записи лежат в журнале после этой и не станут долговечными раньше
+        try {
+            journal.awaitDurable(position);
+        } catch (UncheckedIOException e) {
+            // Остаток в памяти уже изменен, а запись может оказаться в журнале и проиграться при старте
+            throw new TransferOutcomeUnknownException("Transfer journal sync failed", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.ledger.flush-interval-ms:1000}")
+    public void flush() {
+        if (journal.isFailed()) {
+            return;
+        }
+        Map<Long, Long> deltas = new TreeMap<>();
+        long segment;
+
+        flushLock.writeLock().lock();
+        try {
+            long idleBefore = System.currentTimeMillis() - idleEvictionMs;
+            for (Iterator<LedgerAccount> it = accounts.values().iterator(); it.hasNext(); ) {
+                LedgerAccount account = it.next();
+                if (account.pendingDeltaCents != 0) {
+                    deltas.put(account.userId, account.pendingDeltaCents);
+                    account.pendingDeltaCents = 0;
+                } else if (account.lastTouchedAt < idleBefore) {
+                    // Выгруженный счет перечитается из БД вместе с начисленными процентами
+                    it.remove();
+                }
+            }
+            if (deltas.isEmpty()) {
+                return;
+            }
+            segment = journal.rotate();
+        } catch (IOException e) {
+            restore(deltas);
+            log.error("Ledger journal rotation failed", e);
+            return;
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+
+        try {
+            store.applyDeltas(deltas, readSegments(lastFlushedSegment, segment), segment);
+            lastFlushedSegment = segment;
+            journal.deleteSegmentsUpTo(segment);
+        } catch (IOException | RuntimeException e) {
+            // Сегменты остаются на диске, дельты вернутся в следующий сброс
+            flushLock.writeLock().lock();
+            try {
+                restore(deltas);
+            } finally {
+                flushLock.writeLock().unlock();
+            }
+            log.error("Ledger flush of {} accounts failed", deltas.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    private long recover() throws IOException {
+        List<Long> segments = TransferJournal.listSegments(journalDirectory);
+        long checkpoint = store.lastCheckpoint();
+        // Нумерация продолжается после контрольной точки, даже если каталог журнала пуст:
+        // иначе новые сегменты окажутся не новее checkpoint и после сбоя не будут переиграны
+        if (segments.isEmpty()) {
+            return checkpoint + 1;
+        }
+
+        long lastSegment = segments.get(segments.size() - 1);
+        if (lastSegment > checkpoint) {
+            List<TransferJournal.JournalRecord> records = readSegments(checkpoint, lastSegment);
+            Map<Long, Long> deltas = new TreeMap<>();
+            for (TransferJournal.JournalRecord record : records) {
+                deltas.merge(record.fromUserId, -record.amountCents, Long::sum);
+                deltas.merge(record.toUserId, record.amountCents, Long::sum);
+            }
+            store.applyDeltas(deltas, records, lastSegment);
+            log.info("Ledger recovered {} journaled transfers from segments after {}", records.size(), checkpoint);
+        }
+        TransferJournal.deleteSegmentsUpTo(journalDirectory, lastSegment);
+        return Math.max(lastSegment, checkpoint) + 1;
+    }
+
+    private List<TransferJournal.JournalRecord> readSegments(long afterSegment, long upToSegment) throws IOException {
+        List<TransferJournal.JournalRecord> records = new ArrayList<>();
+        for (Long segment : TransferJournal.listSegments(journalDirectory)) {
+            if (segment > afterSegment && segment <= upToSegment) {
+                records.addAll(TransferJournal.readSegment(journalDirectory, segment));
+            }
+        }
+        return records;
+    }
+
+    private LedgerAccount account(long userId, String notFoundMessage) throws AccountNotFoundException {
+        LedgerAccount account = accounts.get(userId);
+        if (account != null) {
+            return account;
+        }
+        Long balanceCents = store.loadBalanceCents(userId);
+        if (balanceCents == null) {
+            throw new AccountNotFoundException(notFoundMessage);
+        }
+        LedgerAccount loaded = new LedgerAccount(userId, balanceCents);
+        LedgerAccount existing = accounts.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void checkSelfTransfer(LedgerAccount account, long amountCents) {
+        account.lock.lock();
+        try {
+            if (account.balanceCents < amountCents) {
+                throw new InsufficientFundsException("Not enough balance");
+            }
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    private void restore(Map<Long, Long> deltas) {
+        deltas.forEach((userId, delta) -> {
+            LedgerAccount account = accounts.get(userId);
+            if (account != null) {
+                account.pendingDeltaCents += delta;
+            }
+        });
+    }
+
+    static long toCents(BigDecimal amount) {
+        try {
+            return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount must have at most 2 decimal places: " + amount, e);
+        }
+    }
+}
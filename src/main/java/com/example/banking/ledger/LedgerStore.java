@@ -0,0 +1,59 @@
+package com.example.banking.ledger;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class LedgerStore {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String journalId;
+
+    LedgerStore(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, String journalId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.journalId = journalId;
+    }
+
+    Long loadBalanceCents(long userId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT balance FROM account WHERE user_id = ?", BigDecimal.class, userId);
+        return balances.isEmpty() ? null : balances.get(0).movePointRight(2).longValueExact();
+    }
+
+    long lastCheckpoint() {
+        List<Long> segments = jdbcTemplate.queryForList(
+                "SELECT last_segment FROM ledger_checkpoint WHERE journal_id = ?", Long.class, journalId);
+        return segments.isEmpty() ? -1 : segments.get(0);
+    }
+
+    // Дельты, история переводов и номер сброшенного сегмента фиксируются одной транзакцией,
+    // поэтому повторный replay невозможен
+    void applyDeltas(Map<Long, Long> deltasCents, List<TransferJournal.JournalRecord> records, long segment) {
+        List<Object[]> batch = new ArrayList<>(deltasCents.size());
+        deltasCents.forEach((userId, delta) ->
+                batch.add(new Object[]{BigDecimal.valueOf(delta, 2), userId}));
+        List<Object[]> transfers = new ArrayList<>(records.size());
+        for (TransferJournal.JournalRecord record : records) {
+            transfers.add(new Object[]{record.fromUserId, record.toUserId,
+                    BigDecimal.valueOf(record.amountCents, 2), new Timestamp(record.timestamp)});
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE account SET balance = balance + ? WHERE user_id = ?", batch);
+            }
+            if (!transfers.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO transfer (from_user_id, to_user_id, amount, created_at) " +
+                        "VALUES (?, ?, ?, ?)", transfers);
+            }
+            jdbcTemplate.update("INSERT INTO ledger_checkpoint (journal_id, last_segment) VALUES (?, ?) " +
+                    "ON CONFLICT (journal_id) DO UPDATE SET last_segment = EXCLUDED.last_segment", journalId, segment);
+        });
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.banking.ledger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Локальный журнал переводов из сегментов фиксированного формата с групповым fsync.
+ * После первой ошибки записи или fsync журнал останавливается: неизвестно, что из хвоста дошло до диска,
+ * поэтому новые записи и ротация отклоняются до перезапуска, а при старте проигрывается то, что прочиталось.
+ */
+@Slf4j
+class TransferJournal implements AutoCloseable {
+    static final int RECORD_SIZE = 36;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendingSync = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final ByteBuffer recordBuffer = ByteBuffer.allocateDirect(RECORD_SIZE);
+    private final CRC32 crc = new CRC32();
+    private final Thread syncer;
+
+    private FileChannel channel;
+    private long segment;
+    private long writtenPosition;
+    private long syncedPosition;
+    private volatile IOException failure;
+    private volatile boolean running = true;
+
+    TransferJournal(Path directory, long firstSegment) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        this.segment = firstSegment;
+        this.channel = openSegment(firstSegment);
+        this.syncer = new Thread(this::syncLoop, "ledger-journal-sync");
+        this.syncer.setDaemon(true);
+        this.syncer.start();
+    }
+
+    // Запись попадает в page cache сразу, долговечность ждется отдельно через awaitDurable
+    long append(long fromUserId, long toUserId, long amountCents) {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new UncheckedIOException("Transfer journal is stopped", failure);
+            }
+            recordBuffer.clear();
+            recordBuffer.putLong(fromUserId).putLong(toUserId).putLong(amountCents).putLong(System.currentTimeMillis());
+            crc.reset();
+            recordBuffer.flip();
+            crc.update(recordBuffer.duplicate().limit(RECORD_SIZE - 4));
+            recordBuffer.limit(RECORD_SIZE).position(RECORD_SIZE - 4);
+            recordBuffer.putInt((int) crc.getValue());
+            recordBuffer.flip();
+            while (recordBuffer.hasRemaining()) {
+                channel.write(recordBuffer);
+            }
+            writtenPosition += RECORD_SIZE;
+            pendingSync.signal();
+            return writtenPosition;
+        } catch (IOException e) {
+            // Часть записи могла попасть в сегмент; при чтении оборванный хвост отбрасывается по CRC
+            markFailed(e);
+            throw new UncheckedIOException("Failed to append to transfer journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void awaitDurable(long position) {
+        lock.lock();
+        try {
+            while (syncedPosition < position) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Transfer journal sync failed", failure);
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Закрывает текущий сегмент (с fsync) и открывает следующий; возвращает номер закрытого
+    long rotate() throws IOException {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new IOException("Transfer journal is stopped", failure);
+            }
+            long closed = segment;
+            channel.force(false);
+            channel.close();
+            syncedPosition = writtenPosition;
+            synced.signalAll();
+            segment = closed + 1;
+            channel = openSegment(segment);
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    // Ожидающие awaitDurable получают ошибку, если их запись еще не подтверждена fsync
+    void markFailed(IOException e) {
+        lock.lock();
+        try {
+            if (failure == null) {
+                log.error("Transfer journal stopped after I/O failure", e);
+                failure = e;
+            }
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void deleteSegmentsUpTo(long lastSegment) {
+        deleteSegmentsUpTo(directory, lastSegment);
+    }
+
+    static void deleteSegmentsUpTo(Path directory, long lastSegment) {
+        for (Long number : listSegments(directory)) {
+            if (number <= lastSegment) {
+                try {
+                    Files.deleteIfExists(segmentPath(directory, number));
+                } catch (IOException e) {
+                    log.warn("Failed to delete flushed journal segment {}", number, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        lock.lock();
+        try {
+            pendingSync.signalAll();
+            if (failure != null) {
+                channel.close();
+                return;
+            }
+            channel.force(false);
+            channel.close();
+            syncedPosition = writtenPosition;
+            synced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static List<Long> listSegments(Path directory) {
+        List<Long> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list transfer journal segments", e);
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    // Оборванная или испорченная запись в хвосте сегмента означает конец журнала
+    static List<JournalRecord> readSegment(Path directory, long number) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segmentPath(directory, number)));
+        CRC32 checksum = new CRC32();
+        while (buffer.remaining() >= RECORD_SIZE) {
+            int start = buffer.position();
+            checksum.reset();
+            checksum.update(buffer.array(), start, RECORD_SIZE - 4);
+            long fromUserId = buffer.getLong();
+            long toUserId = buffer.getLong();
+            long amountCents = buffer.getLong();
+            long timestamp = buffer.getLong();
+            if (buffer.getInt() != (int) checksum.getValue()) {
+                log.warn("Transfer journal segment {} has a corrupt record at offset {}, ignoring the tail", number, start);
+                break;
+            }
+            records.add(new JournalRecord(fromUserId, toUserId, amountCents, timestamp));
+        }
+        return records;
+    }
+
+    private void syncLoop() {
+        while (running) {
+            FileChannel target;
+            long position;
+            lock.lock();
+            try {
+                while (running && syncedPosition >= writtenPosition) {
+                    pendingSync.awaitUninterruptibly();
+                }
+                if (!running) {
+                    return;
+                }
+                target = channel;
+                position = writtenPosition;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                target.force(false);
+            } catch (ClosedChannelException e) {
+                // Сегмент закрыт при ротации, которая сама сделала fsync
+            } catch (IOException e) {
+                markFailed(e);
+                return;
+            }
+
+            lock.lock();
+            try {
+                if (position > syncedPosition) {
+                    syncedPosition = position;
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    static final class JournalRecord {
+        final long fromUserId;
+        final long toUserId;
+        final long amountCents;
+        final long timestamp;
+
+        JournalRecord(long fromUserId, long toUserId, long amountCents, long timestamp) {
+            this.fromUserId = fromUserId;
+            this.toUserId = toUserId;
+            this.amountCents = amountCents;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -1,30 +1,54 @@
 package com.example.banking.model;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import javax.validation.constraints.Size;
 import javax.validation.constraints.Pattern;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_name", columnList = "name"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// Обратная сторона @OneToOne без bytecode enhancement не бывает ленивой, поэтому account входит в граф:
+// join дешевле отдельного SELECT по user_id. Телефоны догружает @BatchSize вторым запросом:
+// fetch join обеих коллекций дал бы декартово произведение emails x phones
+@NamedEntityGraph(name = User.WITH_CONTACTS, attributeNodes = {
+        @NamedAttributeNode("emails"),
+        @NamedAttributeNode("account")
+})
 public class User {
+    public static final String WITH_CONTACTS = "User.withContacts";
+
+    public static final DateTimeFormatter DATE_OF_BIRTH_FORMAT =
+            DateTimeFormatter.ofPattern("dd.MM.uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    // Как у EmailData: pooled-lo вместо IDENTITY, чтобы регистрация пользователя со счетом шла batch insert
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @GenericGenerator(name = "users_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "users_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Long id;
 
     @Column(nullable = false, length = 500)
@@ -34,28 +58,52 @@ public class User {
     @Pattern(regexp = "^\\d{2}\\.\\d{2}\\.\\d{4}$", message = "Date of birth must be in format DD.MM.YYYY")
     private String dateOfBirth;
 
+    // Типизированная копия dateOfBirth для индексируемых диапазонных фильтров; заполняется вместе с ней
+    @Column(name = "birth_date")
+    @Setter(AccessLevel.NONE)
+    private LocalDate birthDate;
+
     @Column(nullable = false, length = 500)
     @Size(min = 8, max = 500)
     private String password;
 
+    // Без графа коллекции нескольких пользователей догружаются пачками, а не по запросу на каждого
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private Set<EmailData> emails = new HashSet<>();
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private Set<PhoneData> phones = new HashSet<>();
 
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Account account;
 
+    public void setDateOfBirth(String dateOfBirth) {
+        this.dateOfBirth = dateOfBirth;
+        this.birthDate = parseDateOfBirth(dateOfBirth);
+    }
+
     // Дополнительный метод для получения даты в виде LocalDate (если нужно)
     public LocalDate getDateOfBirthAsLocalDate() {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-        return LocalDate.parse(this.dateOfBirth, formatter);
+        return birthDate != null ? birthDate : LocalDate.parse(this.dateOfBirth, DATE_OF_BIRTH_FORMAT);
     }
 
     // Дополнительный метод для установки даты из LocalDate (если нужно)
     public void setDateOfBirthFromLocalDate(LocalDate date) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
-        this.dateOfBirth = date.format(formatter);
+        this.dateOfBirth = date.format(DATE_OF_BIRTH_FORMAT);
+        this.birthDate = date;
+    }
+
+    // null для строки не в формате DD.MM.YYYY: ее отклонит валидация, а не сеттер
+    public static LocalDate parseDateOfBirth(String dateOfBirth) {
+        if (dateOfBirth == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(dateOfBirth, DATE_OF_BIRTH_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 }
\ No newline at end of file
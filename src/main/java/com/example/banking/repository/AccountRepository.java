@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -27,4 +28,61 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Modifying
     @Query("UPDATE Account a SET a.balance = a.balance + :amount WHERE a.user.id = :userId")
     int depositToAccount(@Param("userId") Long userId, @Param("amount") BigDecimal amount);
-}
\ No newline at end of file
+
+    // Обе строки блокируются одним запросом в порядке id, поэтому встречные переводы A->B и B->A не дедлокают
+    @Query(value = "SELECT a.user_id AS \"userId\", a.balance AS \"balance\" FROM account a " +
+            "WHERE a.user_id IN (:fromUserId, :toUserId) ORDER BY a.id FOR UPDATE",
+            nativeQuery = true)
+    List<LockedAccount> lockAccountsForTransfer(@Param("fromUserId") Long fromUserId,
+                                                @Param("toUserId") Long toUserId);
+
+    @Modifying
+    @Query(value = "UPDATE account SET balance = balance + " +
+            "CASE WHEN user_id = :toUserId THEN :amount ELSE -:amount END " +
+            "WHERE user_id IN (:fromUserId, :toUserId)",
+            nativeQuery = true)
+    int applyTransfer(@Param("fromUserId") Long fromUserId,
+                      @Param("toUserId") Long toUserId,
+                      @Param("amount") BigDecimal amount);
+
+    @Query("SELECT MIN(a.id) FROM Account a")
+    Long findMinId();
+
+    @Query("SELECT MAX(a.id) FROM Account a")
+    Long findMaxId();
+
+    // Верхняя граница следующей пачки счетов для начисления процентов (keyset по id).
+    // Счета на потолке и уже обработанные в этом тике пропускаются
+    @Query(value = "SELECT MAX(chunk.id) FROM (" +
+            "SELECT a.id FROM account a " +
+            "WHERE a.id > :afterId AND a.id <= :maxId " +
+            "AND a.last_interest_tick < :tick " +
+            "AND a.balance < a.initial_deposit * :capMultiplier " +
+            "ORDER BY a.id LIMIT :limit) chunk",
+            nativeQuery = true)
+    Long findInterestChunkUpperBound(@Param("afterId") long afterId,
+                                     @Param("maxId") long maxId,
+                                     @Param("tick") long tick,
+                                     @Param("capMultiplier") BigDecimal capMultiplier,
+                                     @Param("limit") int limit);
+
+    // Условие по last_interest_tick гарантирует не более одного начисления за тик,
+    // даже если диапазон обрабатывают несколько узлов одновременно
+    @Modifying
+    @Query(value = "UPDATE account SET balance = LEAST(balance * :rate, initial_deposit * :capMultiplier), " +
+            "last_interest_tick = :tick " +
+            "WHERE id > :afterId AND id <= :upToId AND last_interest_tick < :tick " +
+            "AND balance < initial_deposit * :capMultiplier",
+            nativeQuery = true)
+    int applyInterestToRange(@Param("afterId") long afterId,
+                             @Param("upToId") long upToId,
+                             @Param("tick") long tick,
+                             @Param("rate") BigDecimal rate,
+                             @Param("capMultiplier") BigDecimal capMultiplier);
+
+    interface LockedAccount {
+        Long getUserId();
+
+        BigDecimal getBalance();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,10 @@ public interface EmailDataRepository extends JpaRepository<EmailData, Long> {
     // Проверка существования email
     boolean existsByEmail(String email);
 
+    // Какие из переданных значений уже заняты: одна проверка на все новые контакты
+    @Query("SELECT e.email FROM EmailData e WHERE e.email IN :values")
+    List<String> findExistingEmails(@Param("values") Collection<String> values);
+
     // Поиск по email
     Optional<EmailData> findByEmail(String email);
 
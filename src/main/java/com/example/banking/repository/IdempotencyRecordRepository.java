@@ -0,0 +1,56 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecord.Key> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    // Возвращает 1, если ключ захвачен этим запросом, и 0, если он уже существует
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (user_id, idempotency_key, request_fingerprint, status, created_at) " +
+            "VALUES (:userId, :idempotencyKey, :fingerprint, 'IN_PROGRESS', now()) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int claim(@Param("userId") Long userId,
+              @Param("idempotencyKey") String idempotencyKey,
+              @Param("fingerprint") String fingerprint);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'COMPLETED', r.responseStatus = :responseStatus, " +
+            "r.responseCode = :responseCode, r.responseMessage = :responseMessage " +
+            "WHERE r.userId = :userId AND r.idempotencyKey = :idempotencyKey")
+    int complete(@Param("userId") Long userId,
+                 @Param("idempotencyKey") String idempotencyKey,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseCode") String responseCode,
+                 @Param("responseMessage") String responseMessage);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r " +
+            "WHERE r.userId = :userId AND r.idempotencyKey = :idempotencyKey AND r.status = 'IN_PROGRESS'")
+    int release(@Param("userId") Long userId, @Param("idempotencyKey") String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = 'UNKNOWN' " +
+            "WHERE r.userId = :userId AND r.idempotencyKey = :idempotencyKey AND r.status = 'IN_PROGRESS'")
+    int markUnknown(@Param("userId") Long userId, @Param("idempotencyKey") String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") Instant before);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,6 +17,10 @@ public interface PhoneDataRepository extends JpaRepository<PhoneData, Long> {
     // Проверка существования телефона
     boolean existsByPhone(String phone);
 
+    // Какие из переданных значений уже заняты: одна проверка на все новые контакты
+    @Query("SELECT p.phone FROM PhoneData p WHERE p.phone IN :values")
+    List<String> findExistingPhones(@Param("values") Collection<String> values);
+
     // Поиск по номеру телефона
     Optional<PhoneData> findByPhone(String phone);
 
@@ -0,0 +1,9 @@
+package com.example.banking.repository;
+
+import com.example.banking.model.Transfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransferRepository extends JpaRepository<Transfer, Long> {
+}
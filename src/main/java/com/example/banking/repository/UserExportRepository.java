@@ -0,0 +1,74 @@
+package com.example.banking.repository;
+
+import com.example.banking.dto.UserExportRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Полная выгрузка пользователей со счетами и контактами одним запросом по возрастанию id.
+ * Строки читаются серверным курсором PostgreSQL порциями по fetch-size, поэтому память не зависит от объема.
+ */
+@Repository
+public class UserExportRepository {
+    private static final String EXPORT_SELECT = "SELECT u.id, u.name, u.date_of_birth, a.balance, e.vals AS emails, p.vals AS phones " +
+            "FROM users u " +
+            "LEFT JOIN account a ON a.user_id = u.id " +
+            "LEFT JOIN LATERAL (SELECT array_agg(email ORDER BY id) AS vals FROM email_data WHERE user_id = u.id) e ON true " +
+            "LEFT JOIN LATERAL (SELECT array_agg(phone ORDER BY id) AS vals FROM phone_data WHERE user_id = u.id) p ON true " +
+            "WHERE u.id > ? ORDER BY u.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public UserExportRepository(JdbcTemplate jdbcTemplate,
+                                @Value("${banking.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    // Курсор в формате поиска (/api/users/search), поэтому nextCursor страницы тоже подходит как точка продолжения
+    public static long startAfter(String cursor) {
+        return cursor == null || cursor.isBlank() ? 0L : UserSearchRepositoryImpl.decodeCursor(cursor);
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    // Без открытой транзакции драйвер игнорирует fetch size и читает весь результат в память
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public void forEachAfter(long afterId, Consumer<UserExportRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SELECT);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, afterId);
+            return statement;
+        }, rs -> {
+            long id = rs.getLong("id");
+            consumer.accept(new UserExportRow(id,
+                    rs.getString("name"),
+                    rs.getString("date_of_birth"),
+                    rs.getBigDecimal("balance"),
+                    values(rs, "emails"),
+                    values(rs, "phones"),
+                    UserSearchRepositoryImpl.encodeCursor(id)));
+        });
+    }
+
+    private static List<String> values(ResultSet rs, String column) throws SQLException {
+        Array array = rs.getArray(column);
+        return array == null ? Collections.emptyList() : Arrays.asList((String[]) array.getArray());
+    }
+}
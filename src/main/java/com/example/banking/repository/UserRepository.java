@@ -1,10 +1,11 @@
 package com.example.banking.repository;
 
+import com.example.banking.dto.UserCredentials;
 import com.example.banking.model.User;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,25 +13,31 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserSearchRepository {
 
-    @Cacheable("users")
-    Optional<User> findById(Long id);
-
-    @Cacheable("usersByName")
     Optional<User> findByName(String name); // Используем name вместо username
 
-    @Query("SELECT u FROM User u WHERE " +
-            "(:name IS NULL OR u.name LIKE %:name%) AND " +
-            "(:dateOfBirth IS NULL OR u.dateOfBirth > :dateOfBirth) AND " +
-            "(:email IS NULL OR EXISTS (SELECT 1 FROM u.emails e WHERE e.email = :email)) AND " +
-            "(:phone IS NULL OR EXISTS (SELECT 1 FROM u.phones p WHERE p.phone = :phone))")
-    Page<User> searchUsers(
-            @Param("name") String name,
-            @Param("dateOfBirth") String dateOfBirth,
-            @Param("email") String email,
-            @Param("phone") String phone,
-            Pageable pageable);
+    @EntityGraph(User.WITH_CONTACTS)
+    Optional<User> findWithContactsById(Long id);
+
+    // Пустой результат не кэшируется: пользователь с таким именем может появиться позже
+    @Cacheable(value = "credentials", unless = "#result == null")
+    @Query("SELECT new com.example.banking.dto.UserCredentials(u.id, u.name, u.password) FROM User u WHERE u.name = :name")
+    Optional<UserCredentials> findCredentialsByName(@Param("name") String name);
+
+    // Перехеширование при входе: если пароль успели сменить, старый хеш не совпадет и строка не изменится
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int replacePasswordHash(@Param("id") Long id,
+                            @Param("oldPassword") String oldPassword,
+                            @Param("newPassword") String newPassword);
+
+    // Верхняя граница следующей пачки пользователей без birth_date (keyset по id)
+    @Query(value = "SELECT MAX(chunk.id) FROM (" +
+            "SELECT u.id FROM users u WHERE u.id > :afterId AND u.birth_date IS NULL " +
+            "ORDER BY u.id LIMIT :limit) chunk",
+            nativeQuery = true)
+    Long findBirthDateChunkUpperBound(@Param("afterId") long afterId, @Param("limit") int limit);
 
     @Query("SELECT CASE WHEN COUNT(u) > 0 THEN true ELSE false END " +
             "FROM User u JOIN u.emails e WHERE e.email = :email")
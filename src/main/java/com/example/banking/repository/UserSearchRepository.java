@@ -0,0 +1,14 @@
+package com.example.banking.repository;
+
+import com.example.banking.dto.CursorPage;
+import com.example.banking.dto.UserSearchDto;
+import com.example.banking.dto.UserSnapshot;
+
+import java.util.Optional;
+
+public interface UserSearchRepository {
+
+    Optional<UserSnapshot> findSnapshotById(Long id);
+
+    CursorPage<UserSnapshot> search(UserSearchDto filter, String cursor, int size, boolean includeCount);
+}
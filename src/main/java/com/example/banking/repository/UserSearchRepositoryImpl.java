@@ -0,0 +1,171 @@
+package com.example.banking.repository;
+
+import com.example.banking.dto.CursorPage;
+import com.example.banking.dto.UserSearchDto;
+import com.example.banking.dto.UserSnapshot;
+import com.example.banking.exception.InvalidCursorException;
+import com.example.banking.exception.InvalidSearchParameterException;
+import com.example.banking.model.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Поиск пользователей с keyset-пагинацией по id: глубина страницы не влияет на стоимость запроса.
+ * Email и телефон сначала разрешаются в user_id по уникальным индексам, имя ищется через триграммный индекс.
+ * Страница со всеми контактами читается одним запросом сразу в {@link UserSnapshot}, без загрузки сущностей.
+ */
+class UserSearchRepositoryImpl implements UserSearchRepository {
+    private static final String CURSOR_PREFIX = "u1:";
+    private static final DateTimeFormatter SORTABLE_DATE_FORMAT = DateTimeFormatter.ofPattern("uuuuMMdd");
+
+    // Контакты собираются в массивы LATERAL-подзапросами по индексам email_data/phone_data(user_id);
+    // при ORDER BY id LIMIT подзапросы выполняются только для строк страницы
+    private static final String SNAPSHOT_SELECT = "SELECT u.id, u.name, u.date_of_birth, " +
+            "e.ids AS email_ids, e.vals AS emails, p.ids AS phone_ids, p.vals AS phones " +
+            "FROM users u " +
+            "LEFT JOIN LATERAL (SELECT array_agg(id ORDER BY id) AS ids, array_agg(email ORDER BY id) AS vals " +
+            "FROM email_data WHERE user_id = u.id) e ON true " +
+            "LEFT JOIN LATERAL (SELECT array_agg(id ORDER BY id) AS ids, array_agg(phone ORDER BY id) AS vals " +
+            "FROM phone_data WHERE user_id = u.id) p ON true";
+
+    private static final RowMapper<UserSnapshot> SNAPSHOT_MAPPER = (rs, rowNum) -> new UserSnapshot(
+            rs.getLong("id"),
+            rs.getString("name"),
+            rs.getString("date_of_birth"),
+            contacts(rs, "email_ids", "emails"),
+            contacts(rs, "phone_ids", "phones"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    UserSearchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<UserSnapshot> findSnapshotById(Long id) {
+        return jdbcTemplate.query(SNAPSHOT_SELECT + " WHERE u.id = ?", SNAPSHOT_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public CursorPage<UserSnapshot> search(UserSearchDto filter, String cursor, int size, boolean includeCount) {
+        List<Long> exactIds = new ArrayList<>();
+        if (!resolveContact("SELECT user_id FROM email_data WHERE email = ?", filter.getEmail(), exactIds)
+                || !resolveContact("SELECT user_id FROM phone_data WHERE phone = ?", filter.getPhone(), exactIds)) {
+            return new CursorPage<>(Collections.emptyList(), null, false, includeCount ? 0L : null);
+        }
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (filter.getName() != null) {
+            params.add("%" + escapeLike(filter.getName()) + "%");
+            where.append(" AND u.name LIKE ? ESCAPE '\\'");
+        }
+        if (filter.getDateOfBirth() != null) {
+            LocalDate bornAfter = User.parseDateOfBirth(filter.getDateOfBirth());
+            if (bornAfter == null) {
+                throw new InvalidSearchParameterException("dateOfBirth must be in format DD.MM.YYYY");
+            }
+            // Диапазон по индексу birth_date; строки, до которых еще не дошел backfill, сравниваются как строки YYYYMMDD:
+            // to_date упал бы на невозможной дате вроде 31.02.2000 и сорвал бы весь запрос
+            params.add(bornAfter);
+            params.add(bornAfter.format(SORTABLE_DATE_FORMAT));
+            where.append(" AND (u.birth_date > ?")
+                    .append(" OR (u.birth_date IS NULL")
+                    .append(" AND u.date_of_birth ~ '^(0[1-9]|[12][0-9]|3[01])\\.(0[1-9]|1[0-2])\\.[0-9]{4}$'")
+                    .append(" AND substr(u.date_of_birth, 7, 4) || substr(u.date_of_birth, 4, 2)")
+                    .append(" || substr(u.date_of_birth, 1, 2) > ?))");
+        }
+        if (!exactIds.isEmpty()) {
+            params.add(exactIds.get(0));
+            where.append(" AND u.id = ?");
+        }
+
+        Long totalElements = includeCount
+                ? jdbcTemplate.queryForObject("SELECT count(*) FROM users u" + where, Long.class, params.toArray())
+                : null;
+
+        List<Object> pageParams = new ArrayList<>(params);
+        StringBuilder pageSql = new StringBuilder(SNAPSHOT_SELECT).append(where);
+        if (cursor != null) {
+            pageParams.add(decodeCursor(cursor));
+            pageSql.append(" AND u.id > ?");
+        }
+        pageSql.append(" ORDER BY u.id LIMIT ").append(size + 1);
+
+        List<UserSnapshot> content = jdbcTemplate.query(pageSql.toString(), SNAPSHOT_MAPPER, pageParams.toArray());
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        String nextCursor = hasNext ? encodeCursor(content.get(content.size() - 1).getId()) : null;
+        return new CursorPage<>(content, nextCursor, hasNext, totalElements);
+    }
+
+    // Добавляет найденный user_id в exactIds; false — контакт не найден или принадлежит другому пользователю
+    private boolean resolveContact(String sql, String value, List<Long> exactIds) {
+        if (value == null) {
+            return true;
+        }
+        List<Long> rows = jdbcTemplate.queryForList(sql, Long.class, value);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        long userId = rows.get(0);
+        if (!exactIds.isEmpty() && exactIds.get(0) != userId) {
+            return false;
+        }
+        if (exactIds.isEmpty()) {
+            exactIds.add(userId);
+        }
+        return true;
+    }
+
+    private static List<UserSnapshot.Contact> contacts(ResultSet rs, String idsColumn, String valuesColumn)
+            throws SQLException {
+        Array ids = rs.getArray(idsColumn);
+        Array values = rs.getArray(valuesColumn);
+        if (ids == null || values == null) {
+            return Collections.emptyList();
+        }
+        Object[] idArray = (Object[]) ids.getArray();
+        Object[] valueArray = (Object[]) values.getArray();
+        List<UserSnapshot.Contact> contacts = new ArrayList<>(idArray.length);
+        for (int i = 0; i < idArray.length; i++) {
+            contacts.add(new UserSnapshot.Contact(((Number) idArray[i]).longValue(), (String) valueArray[i]));
+        }
+        return List.copyOf(contacts);
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
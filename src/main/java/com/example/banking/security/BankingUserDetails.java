@@ -0,0 +1,27 @@
+package com.example.banking.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * UserDetails с id пользователя, чтобы при входе записать его в токен.
+ */
+public class BankingUserDetails extends User {
+    public static final String USER = "USER";
+    // Выдается пользователям из banking.admin.usernames и открывает /api/admin/**
+    public static final String ADMIN = "ADMIN";
+
+    private final Long userId;
+
+    public BankingUserDetails(Long userId, String username, String password,
+                              Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -2,6 +2,7 @@ package com.example.banking.security;
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
@@ -10,6 +11,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collections;
 
 public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
 
@@ -32,15 +34,15 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
         }
 
         try {
-            String token = header.substring(7);
-            if (jwtUtil.validateToken(token)) {
-                String username = jwtUtil.extractUsername(token);
+            // Токен проверяется один раз за запрос; контроллеры берут id из JwtPrincipal и повторно его не разбирают
+            JwtPrincipal principal = jwtUtil.authenticate(header.substring(7));
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(username, null, null);
+            UsernamePasswordAuthenticationToken authentication =
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.isAdmin()
+                            ? AuthorityUtils.createAuthorityList(BankingUserDetails.ADMIN)
+                            : Collections.emptyList());
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+            SecurityContextHolder.getContext().setAuthentication(authentication);
         } catch (Exception e) {
             SecurityContextHolder.clearContext();
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired JWT token");
@@ -0,0 +1,34 @@
+package com.example.banking.security;
+
+import lombok.Value;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.security.Principal;
+
+/**
+ * Проверенный JWT: кладется в SecurityContext фильтром, контроллеры получают его через @AuthenticationPrincipal.
+ */
+@Value
+public class JwtPrincipal implements Principal {
+    // null у токенов, выпущенных до появления claim uid
+    Long userId;
+    String name;
+    boolean admin;
+
+    public JwtPrincipal(Long userId, String name) {
+        this(userId, name, false);
+    }
+
+    public JwtPrincipal(Long userId, String name, boolean admin) {
+        this.userId = userId;
+        this.name = name;
+        this.admin = admin;
+    }
+
+    public Long requireUserId() {
+        if (userId == null) {
+            throw new AccessDeniedException("Token does not contain a user id, please log in again");
+        }
+        return userId;
+    }
+}
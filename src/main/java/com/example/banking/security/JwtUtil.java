@@ -1,35 +1,100 @@
 package com.example.banking.security;
 
 import com.example.banking.config.JwtConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
+    static final String USER_ID_CLAIM = "uid";
+    static final String ADMIN_CLAIM = "adm";
 
     private final JwtConfig jwtConfig;
     private final SecretKey secretKey;
+    // JwtParser неизменяемый и потокобезопасный, поэтому строится один раз
+    private final JwtParser parser;
+    // Проверенные токены по SHA-256 от строки токена; запись живет до exp токена
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Timer cachedTimer;
+    private final Timer verifiedTimer;
+    private final Timer invalidTimer;
 
     @Autowired
-    public JwtUtil(JwtConfig jwtConfig) {
+    public JwtUtil(JwtConfig jwtConfig, @Value("${jwt.cache.max-size:100000}") long cacheMaxSize,
+                   MeterRegistry registry) {
         this.jwtConfig = jwtConfig;
         this.secretKey = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAt - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.cachedTimer = verifyTimer(registry, "cached");
+        this.verifiedTimer = verifyTimer(registry, "verified");
+        this.invalidTimer = verifyTimer(registry, "invalid");
+    }
+
+    // result: cached — токен найден в кэше, verified — подпись проверена, invalid — токен отклонен
+    private static Timer verifyTimer(MeterRegistry registry, String result) {
+        return Timer.builder("banking.jwt.verify")
+                .description("Bearer token authentication time")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(500))
+                .maximumExpectedValue(Duration.ofMillis(100))
+                .register(registry);
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof BankingUserDetails) {
+            claims.put(USER_ID_CLAIM, ((BankingUserDetails) userDetails).getUserId());
+        }
+        // Права фиксируются при входе: снятие администратора действует для новых токенов
+        if (AuthorityUtils.authorityListToSet(userDetails.getAuthorities()).contains(BankingUserDetails.ADMIN)) {
+            claims.put(ADMIN_CLAIM, true);
+        }
         return doGenerateToken(claims, userDetails.getUsername());
     }
 
@@ -43,32 +108,58 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Проверяет подпись и срок действия; повторный запрос с тем же токеном обходится без разбора и HMAC.
+     *
+     * @throws JwtException токен невалиден или истек
+     */
+    public JwtPrincipal authenticate(String token) {
+        long startedAt = System.nanoTime();
+        String key = hash(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        // Запись может пережить exp на долю тика очистки Caffeine, поэтому срок проверяется и здесь
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            cachedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return cached.principal;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (RuntimeException e) {
+            invalidTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        JwtPrincipal principal = new JwtPrincipal(userId == null ? null : userId.longValue(), claims.getSubject(),
+                Boolean.TRUE.equals(claims.get(ADMIN_CLAIM, Boolean.class)));
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(key, new VerifiedToken(principal, claims.getExpiration().getTime()));
+        }
+        verifiedTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return principal;
+    }
+
     public Long extractUserId(String token) {
         if (token == null || !token.startsWith("Bearer ")) {
             throw new IllegalArgumentException("Invalid token format");
         }
 
-        String jwtToken = token.substring(7);
-
+        JwtPrincipal principal;
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(jwtToken)
-                    .getBody();
-
-            return Long.parseLong(claims.getSubject());
+            principal = authenticate(token.substring(7));
         } catch (Exception e) {
             throw new SecurityException("Invalid or expired token", e);
         }
+        if (principal.getUserId() == null) {
+            throw new SecurityException("Token does not contain a user id");
+        }
+        return principal.getUserId();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token);
+            authenticate(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -77,7 +168,7 @@ public class JwtUtil {
 
     // Дополнительные полезные методы
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return authenticate(token).getName();
     }
 
     public Date extractExpiration(String token) {
@@ -90,10 +181,25 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class VerifiedToken {
+        final JwtPrincipal principal;
+        final long expiresAt;
+
+        VerifiedToken(JwtPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.example.banking.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пароля при входе выполняется на отдельном ограниченном пуле. Когда очередь заполнена,
+ * запрос сразу получает PasswordHashingOverloadedException (429), а не ждет вместе с остальными:
+ * входом заняты не больше workers + queue-capacity потоков Tomcat, остальные API продолжают работать.
+ * encode выполняется в вызывающем потоке: его вызывают смена пароля, импорт со своим пулом и перехеширование.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer matchesTimer;
+    private final Timer encodeTimer;
+    private final Counter shed;
+
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, int workers, int queueCapacity, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.matchesTimer = Timer.builder("banking.password.hash")
+                .description("Password hashing time")
+                .tag("operation", "matches")
+                .register(registry);
+        this.encodeTimer = Timer.builder("banking.password.hash")
+                .description("Password hashing time")
+                .tag("operation", "encode")
+                .register(registry);
+        this.shed = Counter.builder("banking.password.shed")
+                .description("Logins rejected because the password hashing queue was full")
+                .register(registry);
+        Gauge.builder("banking.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password checks waiting for a hashing thread")
+                .register(registry);
+        Gauge.builder("banking.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password checks being hashed")
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+        } catch (RejectedExecutionException e) {
+            shed.increment();
+            throw new PasswordHashingOverloadedException("Too many concurrent logins, retry later");
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new PasswordHashingOverloadedException("Interrupted while waiting for password check");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
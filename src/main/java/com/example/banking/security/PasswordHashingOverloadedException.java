@@ -0,0 +1,14 @@
+package com.example.banking.security;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * Очередь проверки паролей заполнена. Наследует InternalAuthenticationServiceException,
+ * чтобы ProviderManager не передавал попытку другим провайдерам и не хешировал пароль повторно.
+ */
+public class PasswordHashingOverloadedException extends InternalAuthenticationServiceException {
+
+    public PasswordHashingOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -3,11 +3,14 @@ package com.example.banking.service;
 import com.example.banking.exception.AccountNotFoundException;
 import com.example.banking.exception.ConcurrentTransactionException;
 import com.example.banking.exception.InsufficientFundsException;
-import com.example.banking.model.Account;
+import com.example.banking.ledger.LedgerService;
+import com.example.banking.model.Transfer;
 import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.TransferRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,35 +23,63 @@ import java.util.List;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final RedisTemplate<String, Boolean> redisTemplate;
+    private final TransferRepository transferRepository;
+    private final ObjectProvider<LedgerService> ledgerService;
+    private final ObjectProvider<GroupCommitTransferService> groupCommitTransferService;
+    private final TransferMetrics transferMetrics;
 
-    @Scheduled(fixedRate = 30000)
-    @Transactional
-    public void applyInterest() {
-        List<Account> accounts = accountRepository.findAll();
-        for (Account account : accounts) {
-            BigDecimal maxAllowed = account.getInitialDeposit().multiply(new BigDecimal("2.07"));
-            BigDecimal newBalance = account.getBalance().multiply(new BigDecimal("1.1"));
+    @Value("${banking.transfer.mode:REDIS_LOCK}")
+    private TransferMode transferMode = TransferMode.REDIS_LOCK;
 
-            if (newBalance.compareTo(maxAllowed) > 0) {
-                newBalance = maxAllowed;
-            }
-
-            account.setBalance(newBalance);
-            accountRepository.save(account);
+    @Transactional(rollbackFor = AccountNotFoundException.class)
+    public void transferMoney(Long fromUserId, Long toUserId, BigDecimal amount)
+            throws AccountNotFoundException, InsufficientFundsException, ConcurrentTransactionException {
+        long startedAt = System.nanoTime();
+        TransferMetrics.Outcome outcome = TransferMetrics.Outcome.ERROR;
+        try {
+            transfer(fromUserId, toUserId, amount);
+            outcome = TransferMetrics.Outcome.SUCCESS;
+        } catch (InsufficientFundsException e) {
+            outcome = TransferMetrics.Outcome.INSUFFICIENT_FUNDS;
+            throw e;
+        } catch (ConcurrentTransactionException e) {
+            outcome = TransferMetrics.Outcome.CONFLICT;
+            throw e;
+        } catch (AccountNotFoundException e) {
+            outcome = TransferMetrics.Outcome.NOT_FOUND;
+            throw e;
+        } finally {
+            transferMetrics.record(outcome, System.nanoTime() - startedAt);
         }
     }
 
-    @Transactional
-    public void transferMoney(Long fromUserId, Long toUserId, BigDecimal amount)
-            throws AccountNotFoundException, InsufficientFundsException, ConcurrentTransactionException {
+    private void transfer(Long fromUserId, Long toUserId, BigDecimal amount) throws AccountNotFoundException {
+        if (transferMode == TransferMode.ROW_LOCK) {
+            transferWithRowLocks(fromUserId, toUserId, amount);
+            return;
+        }
+        if (transferMode == TransferMode.LEDGER) {
+            // SQL не выполняется, поэтому соединение из пула не берется (см. LedgerDataSourceConfig)
+            ledgerService.getObject().transfer(fromUserId, toUserId, amount);
+            return;
+        }
+        if (transferMode == TransferMode.GROUP_COMMIT) {
+            groupCommitTransferService.getObject().transfer(fromUserId, toUserId, amount);
+            return;
+        }
+
         String lockKey = String.format("transfer:%s:%s", fromUserId, toUserId);
 
         try {
+            long lockStartedAt = System.nanoTime();
             Boolean locked = redisTemplate.opsForValue().setIfAbsent(lockKey, true, Duration.ofSeconds(30));
-            if (locked == null || !locked) {
+            boolean acquired = locked != null && locked;
+            transferMetrics.recordLock(acquired, System.nanoTime() - lockStartedAt);
+            if (!acquired) {
                 throw new ConcurrentTransactionException("Transaction in progress");
             }
 
+            long writeStartedAt = System.nanoTime();
             int withdrawResult = accountRepository.withdrawFromAccount(fromUserId, amount);
             if (withdrawResult == 0) {
                 throw new InsufficientFundsException("Not enough balance");
@@ -59,8 +90,46 @@ public class AccountService {
                 throw new AccountNotFoundException("Recipient account not found");
             }
 
+            transferRepository.save(new Transfer(fromUserId, toUserId, amount));
+            transferMetrics.recordWrite(System.nanoTime() - writeStartedAt);
         } finally {
             redisTemplate.delete(lockKey);
         }
     }
-}
\ No newline at end of file
+
+    private void transferWithRowLocks(Long fromUserId, Long toUserId, BigDecimal amount)
+            throws AccountNotFoundException {
+        long lockStartedAt = System.nanoTime();
+        List<AccountRepository.LockedAccount> locked = accountRepository.lockAccountsForTransfer(fromUserId, toUserId);
+        transferMetrics.recordLock(true, System.nanoTime() - lockStartedAt);
+
+        BigDecimal senderBalance = null;
+        boolean recipientFound = false;
+        for (AccountRepository.LockedAccount account : locked) {
+            if (account.getUserId().equals(fromUserId)) {
+                senderBalance = account.getBalance();
+            }
+            if (account.getUserId().equals(toUserId)) {
+                recipientFound = true;
+            }
+        }
+
+        if (senderBalance == null) {
+            throw new AccountNotFoundException("Sender account not found");
+        }
+        if (!recipientFound) {
+            throw new AccountNotFoundException("Recipient account not found");
+        }
+        if (senderBalance.compareTo(amount) < 0) {
+            throw new InsufficientFundsException("Not enough balance");
+        }
+
+        long writeStartedAt = System.nanoTime();
+        // Перевод самому себе ничего не меняет, а CASE в applyTransfer записал бы его как зачисление
+        if (!fromUserId.equals(toUserId)) {
+            accountRepository.applyTransfer(fromUserId, toUserId, amount);
+        }
+        transferRepository.save(new Transfer(fromUserId, toUserId, amount));
+        transferMetrics.recordWrite(System.nanoTime() - writeStartedAt);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.banking.service;
+
+public enum BatchTransferMode {
+    // Либо проводятся все переводы пакета, либо ни один
+    ALL_OR_NOTHING,
+    // Проводятся все переводы, которые проходят по остаткам; остальные возвращаются с ошибкой
+    BEST_EFFORT
+}
@@ -0,0 +1,60 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.BatchTransferResponseDto;
+import com.example.banking.dto.TransferRequestDto;
+import com.example.banking.exception.BatchTooLargeException;
+import com.example.banking.exception.BatchTransfersUnsupportedException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пакетные переводы с одного счета (зарплаты, расчеты с мерчантами) одной транзакцией
+ * вместо отдельного HTTP-запроса и транзакции на каждый перевод.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchTransferService {
+    private final TransferSettlementService settlementService;
+
+    @Value("${banking.transfer.mode:REDIS_LOCK}")
+    private TransferMode transferMode = TransferMode.REDIS_LOCK;
+
+    @Value("${banking.transfer.batch.max-size:10000}")
+    private int maxBatchSize = 10000;
+
+    @Transactional
+    public BatchTransferResponseDto transferBatch(Long fromUserId, List<TransferRequestDto> transfers,
+                                                  BatchTransferMode mode) {
+        // В режиме LEDGER актуальные остатки живут в памяти, и прямые UPDATE в обход журнала их разойдут
+        if (transferMode == TransferMode.LEDGER) {
+            throw new BatchTransfersUnsupportedException("Batch transfers are not supported in LEDGER mode");
+        }
+        if (transfers.size() > maxBatchSize) {
+            throw new BatchTooLargeException(maxBatchSize);
+        }
+
+        List<TransferInstruction> instructions = new ArrayList<>(transfers.size());
+        for (TransferRequestDto transfer : transfers) {
+            instructions.add(new TransferInstruction(fromUserId, transfer.getToUserId(), transfer.getAmount()));
+        }
+
+        List<TransferOutcome> outcomes = settlementService.settle(instructions, mode == BatchTransferMode.ALL_OR_NOTHING);
+
+        List<BatchTransferResponseDto.Item> results = new ArrayList<>(outcomes.size());
+        int completed = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            TransferOutcome outcome = outcomes.get(i);
+            if (outcome == TransferOutcome.COMPLETED) {
+                completed++;
+            }
+            results.add(new BatchTransferResponseDto.Item(i, transfers.get(i).getToUserId(),
+                    transfers.get(i).getAmount(), outcome));
+        }
+        return new BatchTransferResponseDto(mode, completed > 0, completed, results);
+    }
+}
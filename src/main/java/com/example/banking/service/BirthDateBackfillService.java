@@ -0,0 +1,137 @@
+package com.example.banking.service;
+
+import com.example.banking.model.User;
+import com.example.banking.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Заполняет users.birth_date из строкового date_of_birth короткими транзакциями в фоне,
+ * затем строит индекс без блокировки записи. Повторный запуск на любом узле безопасен.
+ */
+@Slf4j
+@Service
+public class BirthDateBackfillService {
+    static final String INDEX_NAME = "idx_users_birth_date";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${banking.users.birth-date-backfill.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${banking.users.birth-date-backfill.chunk-size:5000}")
+    private int chunkSize = 5000;
+
+    @Value("${banking.users.birth-date-backfill.pause-ms:50}")
+    private long pauseMs = 50;
+
+    public BirthDateBackfillService(UserRepository userRepository, JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                backfill();
+                createIndex();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Birth date backfill failed, it will resume on next start", e);
+            }
+        }, "birth-date-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public long backfill() throws InterruptedException {
+        long startedAt = System.currentTimeMillis();
+        long updated = 0;
+        long afterId = 0;
+
+        Long upToId;
+        while ((upToId = userRepository.findBirthDateChunkUpperBound(afterId, chunkSize)) != null) {
+            final long from = afterId;
+            final long to = upToId;
+            Integer rows = transactionTemplate.execute(status -> backfillChunk(from, to));
+            updated += rows != null ? rows : 0;
+            afterId = upToId;
+            // Пауза между пачками оставляет место основной нагрузке и автовакууму
+            Thread.sleep(pauseMs);
+        }
+
+        if (updated > 0) {
+            log.info("Birth date backfill: {} users updated in {} ms", updated, System.currentTimeMillis() - startedAt);
+        }
+        return updated;
+    }
+
+    // Дата разбирается тем же строгим форматом, что и в User: невозможные даты вроде 31.02.2000 остаются с NULL,
+    // тогда как to_date в SQL упал бы на них и остановил бы backfill на этой пачке навсегда
+    private int backfillChunk(long afterId, long upToId) {
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query("SELECT id, date_of_birth FROM users WHERE id > ? AND id <= ? AND birth_date IS NULL",
+                (RowCallbackHandler) rs -> {
+                    LocalDate birthDate = User.parseDateOfBirth(rs.getString("date_of_birth"));
+                    if (birthDate != null) {
+                        updates.add(new Object[]{birthDate, rs.getLong("id")});
+                    }
+                },
+                afterId, upToId);
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        int[] counts = jdbcTemplate.batchUpdate("UPDATE users SET birth_date = ? WHERE id = ? AND birth_date IS NULL", updates);
+        return Arrays.stream(counts).map(count -> Math.max(count, 0)).sum();
+    }
+
+    // CONCURRENTLY нельзя выполнить внутри транзакции, а в режиме LEDGER пул отдает соединения с auto-commit=false
+    public void createIndex() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                if (isInvalidIndex(statement)) {
+                    // Прерванный CONCURRENTLY оставляет невалидный индекс, который IF NOT EXISTS пропустил бы
+                    statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + INDEX_NAME);
+                }
+                statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + INDEX_NAME + " ON users (birth_date)");
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private static boolean isInvalidIndex(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT i.indisvalid FROM pg_index i " +
+                "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = '" + INDEX_NAME + "'")) {
+            return rs.next() && !rs.getBoolean(1);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.AccountNotFoundException;
+import com.example.banking.exception.ConcurrentTransactionException;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.TransferOutcomeUnknownException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Собирает переводы из многих HTTP-потоков в группы и фиксирует каждую группу одной транзакцией.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "banking.transfer.mode", havingValue = "GROUP_COMMIT")
+public class GroupCommitTransferService {
+    private final TransferSettlementService settlementService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<PendingTransfer> queue;
+    private final Thread committer;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private volatile boolean running = true;
+
+    public GroupCommitTransferService(TransferSettlementService settlementService,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${banking.transfer.group-commit.max-batch-size:256}") int maxBatchSize,
+                                      @Value("${banking.transfer.group-commit.max-wait-ms:2}") long maxWaitMs,
+                                      @Value("${banking.transfer.group-commit.queue-capacity:10000}") int queueCapacity) {
+        this.settlementService = settlementService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.committer = new Thread(this::commitLoop, "transfer-group-commit");
+        this.committer.start();
+    }
+
+    public void transfer(Long fromUserId, Long toUserId, BigDecimal amount) throws AccountNotFoundException {
+        PendingTransfer pending = new PendingTransfer(new TransferInstruction(fromUserId, toUserId, amount));
+        if (!running || !queue.offer(pending)) {
+            throw new ConcurrentTransactionException("Transfer queue is full");
+        }
+
+        TransferOutcome outcome;
+        try {
+            outcome = pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Перевод уже в очереди и может быть зафиксирован группой
+            throw new TransferOutcomeUnknownException("Interrupted while waiting for transfer commit", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+        }
+
+        if (outcome == TransferOutcome.INSUFFICIENT_FUNDS) {
+            throw new InsufficientFundsException("Not enough balance");
+        }
+        if (outcome == TransferOutcome.ACCOUNT_NOT_FOUND) {
+            throw new AccountNotFoundException("Account not found");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        committer.interrupt();
+        committer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void commitLoop() {
+        List<PendingTransfer> group = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectGroup(group);
+            } catch (InterruptedException e) {
+                // При остановке дофиксируем уже собранное и то, что осталось в очереди
+                queue.drainTo(group, maxBatchSize - group.size());
+            }
+            if (!group.isEmpty()) {
+                commit(group);
+                group.clear();
+            }
+        }
+    }
+
+    // Группа закрывается по размеру или по истечении maxWait с момента прихода первого перевода
+    private void collectGroup(List<PendingTransfer> group) throws InterruptedException {
+        group.add(queue.take());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (group.size() < maxBatchSize) {
+            if (queue.drainTo(group, maxBatchSize - group.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingTransfer next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void commit(List<PendingTransfer> group) {
+        List<TransferInstruction> instructions = new ArrayList<>(group.size());
+        for (PendingTransfer pending : group) {
+            instructions.add(pending.instruction);
+        }
+
+        try {
+            List<TransferOutcome> outcomes = transactionTemplate.execute(status -> settlementService.settle(instructions));
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result.complete(outcomes.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.error("Group commit of {} transfers failed", group.size(), e);
+            for (PendingTransfer pending : group) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class PendingTransfer {
+        final TransferInstruction instruction;
+        final CompletableFuture<TransferOutcome> result = new CompletableFuture<>();
+
+        PendingTransfer(TransferInstruction instruction) {
+            this.instruction = instruction;
+        }
+    }
+}
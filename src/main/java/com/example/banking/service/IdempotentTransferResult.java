@@ -0,0 +1,18 @@
+package com.example.banking.service;
+
+import lombok.Value;
+
+/**
+ * Сохраненный ответ на перевод с Idempotency-Key; повтор запроса получает его без повторного списания.
+ */
+@Value
+public class IdempotentTransferResult {
+    int status;
+    String code;
+    String message;
+    boolean replayed;
+
+    IdempotentTransferResult asReplay() {
+        return new IdempotentTransferResult(status, code, message, true);
+    }
+}
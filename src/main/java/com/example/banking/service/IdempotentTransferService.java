@@ -0,0 +1,142 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.AccountNotFoundException;
+import com.example.banking.exception.ConcurrentTransactionException;
+import com.example.banking.exception.IdempotencyKeyMismatchException;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.LedgerUnavailableException;
+import com.example.banking.exception.TransferOutcomeUnknownException;
+import com.example.banking.model.IdempotencyRecord;
+import com.example.banking.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Дедупликация переводов по Idempotency-Key: ограниченный кэш в памяти процесса
+ * перед таблицей idempotency_key, которая переживает рестарты и видна всем узлам.
+ */
+@Slf4j
+@Service
+public class IdempotentTransferService {
+    private final AccountService accountService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Cache<String, StoredResult> completed;
+    private final Duration retention;
+
+    public IdempotentTransferService(AccountService accountService,
+                                     IdempotencyRecordRepository idempotencyRecordRepository,
+                                     @Value("${banking.idempotency.cache-size:100000}") long cacheSize,
+                                     @Value("${banking.idempotency.cache-ttl-ms:600000}") long cacheTtlMs,
+                                     @Value("${banking.idempotency.retention-ms:86400000}") long retentionMs) {
+        this.accountService = accountService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+        this.retention = Duration.ofMillis(retentionMs);
+    }
+
+    public IdempotentTransferResult transfer(Long fromUserId, String idempotencyKey, Long toUserId, BigDecimal amount) {
+        String fingerprint = fingerprint(toUserId, amount);
+        String cacheKey = fromUserId + ":" + idempotencyKey;
+
+        StoredResult cached = completed.getIfPresent(cacheKey);
+        if (cached != null) {
+            return replay(cached, fingerprint);
+        }
+
+        if (idempotencyRecordRepository.claim(fromUserId, idempotencyKey, fingerprint) == 0) {
+            return replayPersisted(fromUserId, idempotencyKey, fingerprint, cacheKey);
+        }
+
+        IdempotentTransferResult result;
+        try {
+            result = execute(fromUserId, toUserId, amount);
+        } catch (ConcurrentTransactionException | LedgerUnavailableException | IllegalArgumentException e) {
+            // Отказ до движения денег: клиент может повторить перевод с тем же ключом
+            idempotencyRecordRepository.release(fromUserId, idempotencyKey);
+            throw e;
+        } catch (RuntimeException e) {
+            // Деньги могли уже списаться (ошибка коммита, fsync журнала): повтор с этим ключом не выполняется
+            idempotencyRecordRepository.markUnknown(fromUserId, idempotencyKey);
+            throw e;
+        }
+
+        idempotencyRecordRepository.complete(fromUserId, idempotencyKey,
+                result.getStatus(), result.getCode(), result.getMessage());
+        completed.put(cacheKey, new StoredResult(fingerprint, result));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private IdempotentTransferResult execute(Long fromUserId, Long toUserId, BigDecimal amount) {
+        try {
+            accountService.transferMoney(fromUserId, toUserId, amount);
+            return new IdempotentTransferResult(HttpStatus.OK.value(), null, null, false);
+        } catch (InsufficientFundsException e) {
+            return new IdempotentTransferResult(HttpStatus.BAD_REQUEST.value(), "INSUFFICIENT_FUNDS", e.getMessage(), false);
+        } catch (AccountNotFoundException e) {
+            return new IdempotentTransferResult(HttpStatus.NOT_FOUND.value(), "ACCOUNT_NOT_FOUND", e.getMessage(), false);
+        }
+    }
+
+    private IdempotentTransferResult replayPersisted(Long fromUserId, String idempotencyKey,
+                                                     String fingerprint, String cacheKey) {
+        IdempotencyRecord record = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(fromUserId, idempotencyKey)
+                .orElseThrow(() -> new ConcurrentTransactionException("Request with this Idempotency-Key is being released"));
+        if (!record.getRequestFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different transfer");
+        }
+        if (IdempotencyRecord.UNKNOWN.equals(record.getStatus())) {
+            throw new TransferOutcomeUnknownException(
+                    "Previous attempt with this Idempotency-Key failed with unknown outcome, check the balance", null);
+        }
+        if (!IdempotencyRecord.COMPLETED.equals(record.getStatus())) {
+            throw new ConcurrentTransactionException("Request with this Idempotency-Key is still in progress");
+        }
+
+        IdempotentTransferResult result = new IdempotentTransferResult(
+                record.getResponseStatus(), record.getResponseCode(), record.getResponseMessage(), false);
+        completed.put(cacheKey, new StoredResult(fingerprint, result));
+        return result.asReplay();
+    }
+
+    private static IdempotentTransferResult replay(StoredResult stored, String fingerprint) {
+        if (!stored.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different transfer");
+        }
+        return stored.result.asReplay();
+    }
+
+    // 100 и 100.00 — один и тот же перевод
+    static String fingerprint(Long toUserId, BigDecimal amount) {
+        return toUserId + ":" + amount.stripTrailingZeros().toPlainString();
+    }
+
+    private static final class StoredResult {
+        final String fingerprint;
+        final IdempotentTransferResult result;
+
+        StoredResult(String fingerprint, IdempotentTransferResult result) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.banking.service;
+
+import com.example.banking.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class InterestAccrualScheduler {
+    private final AccountRepository accountRepository;
+    private final InterestAccrualService interestAccrualService;
+    private final InterestRangeLeaseService leaseService;
+    private final ExecutorService workers;
+    private final Timer runTimer;
+    private final Counter rowsUpdated;
+    private final Counter rangeFailures;
+
+    @Value("${banking.interest.partition-size:100000}")
+    private long partitionSize = 100000;
+
+    public InterestAccrualScheduler(AccountRepository accountRepository,
+                                    InterestAccrualService interestAccrualService,
+                                    InterestRangeLeaseService leaseService,
+                                    @Value("${banking.interest.workers:0}") int workerCount,
+                                    MeterRegistry registry) {
+        this.accountRepository = accountRepository;
+        this.interestAccrualService = interestAccrualService;
+        this.leaseService = leaseService;
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        this.workers = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("interest-worker-"));
+        this.runTimer = Timer.builder("banking.interest.run")
+                .description("Duration of one interest tick on this node")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(10))
+                .register(registry);
+        this.rowsUpdated = Counter.builder("banking.interest.rows")
+                .description("Accounts credited with interest by this node")
+                .register(registry);
+        this.rangeFailures = Counter.builder("banking.interest.range.failures")
+                .description("Id ranges whose interest accrual failed")
+                .register(registry);
+    }
+
+    @Scheduled(fixedRateString = "${banking.interest.period-ms:30000}")
+    public long runTick() {
+        long tick = interestAccrualService.currentTick();
+        Long minId = accountRepository.findMinId();
+        Long maxId = accountRepository.findMaxId();
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        long base = minId - 1;
+        int rangeCount = (int) ((maxId - base + partitionSize - 1) / partitionSize);
+        // Каждый узел начинает обход со случайного диапазона, чтобы узлы реже сталкивались на аренде
+        int offset = ThreadLocalRandom.current().nextInt(rangeCount);
+
+        // Диапазоны прошлых тиков, которые кто-то захватил, но не довел до конца: сбой или падение узла
+        Map<Long, NavigableMap<Long, InterestRange>> catchUp = new HashMap<>();
+        for (long pastTick = tick - leaseService.getCatchUpTicks(); pastTick < tick; pastTick++) {
+            for (InterestRange range : leaseService.pendingRanges(pastTick)) {
+                catchUp.computeIfAbsent(range.getAfterId(), id -> new TreeMap<>()).put(pastTick, range);
+            }
+        }
+
+        List<Future<Long>> results = new ArrayList<>(rangeCount + catchUp.size());
+        for (int i = 0; i < rangeCount; i++) {
+            long afterId = base + ((offset + i) % rangeCount) * partitionSize;
+            InterestRange range = new InterestRange(afterId, Math.min(afterId + partitionSize, maxId));
+            NavigableMap<Long, InterestRange> pending = catchUp.remove(afterId);
+            results.add(workers.submit(() -> accrue(pending, tick, range)));
+        }
+        // Незавершенные диапазоны, границы которых уже не совпадают с текущей разбивкой
+        for (NavigableMap<Long, InterestRange> pending : catchUp.values()) {
+            results.add(workers.submit(() -> accrue(pending, tick, null)));
+        }
+
+        long updated = 0;
+        for (Future<Long> result : results) {
+            try {
+                updated += result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                rangeFailures.increment();
+                log.error("Interest accrual failed for a range in tick {}", tick, e.getCause());
+            }
+        }
+
+        long elapsedMs = System.currentTimeMillis() - startedAt;
+        runTimer.record(elapsedMs, TimeUnit.MILLISECONDS);
+        rowsUpdated.increment(updated);
+
+        log.info("Interest tick {}: {} accounts updated across {} ranges in {} ms",
+                tick, updated, rangeCount, elapsedMs);
+        return updated;
+    }
+
+    // Прошлые тики диапазона догоняются по порядку и до текущего: начисление за тик видит только счета,
+    // у которых last_interest_tick меньше этого тика, поэтому после текущего тика прошлый уже не начислить
+    private long accrue(NavigableMap<Long, InterestRange> pending, long tick, InterestRange current) {
+        long updated = 0;
+        if (pending != null) {
+            for (Map.Entry<Long, InterestRange> entry : pending.entrySet()) {
+                if (!leaseService.tryClaim(entry.getKey(), entry.getValue())) {
+                    // Прошлый тик еще обрабатывается или не истекла аренда упавшего узла: текущий ждет следующего прохода
+                    if (current != null) {
+                        leaseService.defer(tick, current);
+                    }
+                    return updated;
+                }
+                updated += accrueClaimed(entry.getKey(), entry.getValue(), tick, current);
+            }
+        }
+        if (current != null && leaseService.tryClaim(tick, current)) {
+            updated += accrueClaimed(tick, current, tick, null);
+        }
+        return updated;
+    }
+
+    private long accrueClaimed(long rangeTick, InterestRange range, long tick, InterestRange current) {
+        try {
+            long updated = interestAccrualService.accrueRange(range.getAfterId(), range.getUpToId(), rangeTick);
+            leaseService.complete(rangeTick, range);
+            return updated;
+        } catch (RuntimeException e) {
+            leaseService.release(rangeTick, range);
+            if (current != null) {
+                leaseService.defer(tick, current);
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.banking.service;
+
+import com.example.banking.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+@Slf4j
+@Service
+public class InterestAccrualService {
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${banking.interest.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${banking.interest.rate:1.1}")
+    private BigDecimal rate = new BigDecimal("1.1");
+
+    @Value("${banking.interest.cap-multiplier:2.07}")
+    private BigDecimal capMultiplier = new BigDecimal("2.07");
+
+    @Value("${banking.interest.period-ms:30000}")
+    private long periodMs = 30000;
+
+    public InterestAccrualService(AccountRepository accountRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Номер тика одинаков на всех узлах, поэтому по нему отсекаются повторные начисления
+    public long currentTick() {
+        return System.currentTimeMillis() / periodMs;
+    }
+
+    public long applyInterest() {
+        long startedAt = System.currentTimeMillis();
+        long updated = accrueRange(0, Long.MAX_VALUE, currentTick());
+        log.info("Interest applied: {} accounts updated in {} ms", updated, System.currentTimeMillis() - startedAt);
+        return updated;
+    }
+
+    public long accrueRange(long afterId, long upToId, long tick) {
+        long updated = 0;
+
+        // Каждая пачка - отдельная короткая транзакция, в памяти держим только границу keyset
+        Long chunkUpToId;
+        while ((chunkUpToId = accountRepository.findInterestChunkUpperBound(
+                afterId, upToId, tick, capMultiplier, chunkSize)) != null) {
+            final long from = afterId;
+            final long to = chunkUpToId;
+            Integer rows = transactionTemplate.execute(status ->
+                    accountRepository.applyInterestToRange(from, to, tick, rate, capMultiplier));
+            updated += rows != null ? rows : 0;
+            afterId = chunkUpToId;
+        }
+        return updated;
+    }
+}
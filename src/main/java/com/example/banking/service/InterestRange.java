@@ -0,0 +1,10 @@
+package com.example.banking.service;
+
+import lombok.Value;
+
+// Диапазон счетов (afterId, upToId], который обрабатывается одной задачей начисления
+@Value
+public class InterestRange {
+    long afterId;
+    long upToId;
+}
@@ -0,0 +1,123 @@
+package com.example.banking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class InterestRangeLeaseService {
+    private final RedisTemplate<String, Boolean> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${banking.interest.lease-ttl-ms:60000}")
+    private long leaseTtlMs = 60000;
+
+    @Value("${banking.interest.period-ms:30000}")
+    private long periodMs = 30000;
+
+    @Value("${banking.interest.catch-up-ticks:3}")
+    private int catchUpTicks = 3;
+
+    public InterestRangeLeaseService(RedisTemplate<String, Boolean> redisTemplate,
+                                     StringRedisTemplate stringRedisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    public int getCatchUpTicks() {
+        return catchUpTicks;
+    }
+
+    // Аренда не снимается после успешной обработки: до истечения TTL диапазон этого тика никто больше не возьмет.
+    // Захваченный диапазон сразу попадает в список незавершенных тика, чтобы падение узла не потеряло его
+    public boolean tryClaim(long tick, InterestRange range) {
+        String leaseKey = leaseKey(tick, range);
+        try {
+            Boolean claimed = redisTemplate.opsForValue()
+                    .setIfAbsent(leaseKey, true, Duration.ofMillis(leaseTtlMs));
+            if (Boolean.TRUE.equals(claimed)) {
+                markPending(tick, range);
+                return true;
+            }
+            return false;
+        } catch (RuntimeException e) {
+            // Повторное начисление все равно отсекается last_interest_tick, поэтому без Redis просто работаем сами
+            log.warn("Interest lease {} unavailable, processing range without lease: {}", leaseKey, e.getMessage());
+            return true;
+        }
+    }
+
+    // После сбоя аренда снимается, а диапазон остается незавершенным: его повторит любой узел
+    public void release(long tick, InterestRange range) {
+        String leaseKey = leaseKey(tick, range);
+        try {
+            redisTemplate.delete(leaseKey);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release interest lease {}, it expires in {} ms: {}", leaseKey, leaseTtlMs, e.getMessage());
+        }
+    }
+
+    public void complete(long tick, InterestRange range) {
+        try {
+            stringRedisTemplate.opsForSet().remove(pendingKey(tick), member(range));
+        } catch (RuntimeException e) {
+            // Повторный проход по уже начисленному диапазону ничего не изменит
+            log.warn("Failed to mark interest range {} of tick {} as done: {}", member(range), tick, e.getMessage());
+        }
+    }
+
+    // Диапазон тика, который этот узел не стал обрабатывать, пока не догнаны его прошлые тики
+    public void defer(long tick, InterestRange range) {
+        markPending(tick, range);
+    }
+
+    public List<InterestRange> pendingRanges(long tick) {
+        Set<String> members;
+        try {
+            members = stringRedisTemplate.opsForSet().members(pendingKey(tick));
+        } catch (RuntimeException e) {
+            log.warn("Pending interest ranges of tick {} unavailable: {}", tick, e.getMessage());
+            return List.of();
+        }
+        List<InterestRange> ranges = new ArrayList<>();
+        if (members != null) {
+            for (String member : members) {
+                int separator = member.indexOf(':');
+                ranges.add(new InterestRange(Long.parseLong(member.substring(0, separator)),
+                        Long.parseLong(member.substring(separator + 1))));
+            }
+        }
+        return ranges;
+    }
+
+    private void markPending(long tick, InterestRange range) {
+        String pendingKey = pendingKey(tick);
+        try {
+            stringRedisTemplate.opsForSet().add(pendingKey, member(range));
+            // Список нужен только пока тик остается в окне догоняющих проходов
+            stringRedisTemplate.expire(pendingKey, Duration.ofMillis((catchUpTicks + 2) * periodMs));
+        } catch (RuntimeException e) {
+            log.warn("Failed to record pending interest range {} of tick {}: {}", member(range), tick, e.getMessage());
+        }
+    }
+
+    private static String leaseKey(long tick, InterestRange range) {
+        return String.format("interest:%d:%d", tick, range.getAfterId());
+    }
+
+    private static String pendingKey(long tick) {
+        return "interest:pending:" + tick;
+    }
+
+    private static String member(InterestRange range) {
+        return range.getAfterId() + ":" + range.getUpToId();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.banking.service;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+@Value
+public class TransferInstruction {
+    Long fromUserId;
+    Long toUserId;
+    BigDecimal amount;
+}
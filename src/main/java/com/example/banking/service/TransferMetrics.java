@@ -0,0 +1,77 @@
+package com.example.banking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Таймеры переводов: общий по исходу и отдельные на блокировку счетов и запись в БД, чтобы было видно,
+ * где растет время. Все сочетания тегов регистрируются при старте, а на горячем пути таймер берется
+ * из массива по ordinal, без сборки тегов и поиска в реестре.
+ */
+@Component
+public class TransferMetrics {
+
+    public enum Outcome {
+        SUCCESS, INSUFFICIENT_FUNDS, CONFLICT, NOT_FOUND, ERROR
+    }
+
+    private final Timer[] transfers = new Timer[Outcome.values().length];
+    private final Timer lockAcquired;
+    private final Timer lockContended;
+    private final Timer write;
+
+    public TransferMetrics(MeterRegistry registry,
+                           @Value("${banking.transfer.mode:REDIS_LOCK}") TransferMode mode) {
+        String modeTag = tagValue(mode);
+        for (Outcome outcome : Outcome.values()) {
+            transfers[outcome.ordinal()] = histogram(Timer.builder("banking.transfer")
+                    .description("Transfer time by outcome, without the transaction commit")
+                    .tag("mode", modeTag)
+                    .tag("outcome", tagValue(outcome)))
+                    .register(registry);
+        }
+        lockAcquired = lockTimer(registry, modeTag, "acquired");
+        lockContended = lockTimer(registry, modeTag, "contended");
+        write = histogram(Timer.builder("banking.transfer.write")
+                .description("Balance updates and transfer record insert")
+                .tag("mode", modeTag))
+                .register(registry);
+    }
+
+    public void record(Outcome outcome, long nanos) {
+        transfers[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLock(boolean acquired, long nanos) {
+        (acquired ? lockAcquired : lockContended).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordWrite(long nanos) {
+        write.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer lockTimer(MeterRegistry registry, String modeTag, String result) {
+        return histogram(Timer.builder("banking.transfer.lock")
+                .description("Time to lock both accounts of a transfer")
+                .tag("mode", modeTag)
+                .tag("result", result))
+                .register(registry);
+    }
+
+    // Границы гистограммы ограничены ожидаемым диапазоном, чтобы не плодить лишние бакеты в Prometheus
+    private static Timer.Builder histogram(Timer.Builder builder) {
+        return builder.publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(50_000))
+                .maximumExpectedValue(Duration.ofSeconds(30));
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
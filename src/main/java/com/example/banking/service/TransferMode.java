@@ -0,0 +1,12 @@
+package com.example.banking.service;
+
+public enum TransferMode {
+    // Блокировка пары счетов через Redis setIfAbsent
+    REDIS_LOCK,
+    // SELECT ... FOR UPDATE обоих счетов в порядке id, без внешнего сервиса блокировок
+    ROW_LOCK,
+    // Остатки в памяти с локальным журналом и отложенной записью в БД (LedgerService), только для одного узла
+    LEDGER,
+    // Переводы из разных запросов фиксируются группами одной транзакцией (GroupCommitTransferService)
+    GROUP_COMMIT
+}
@@ -0,0 +1,9 @@
+package com.example.banking.service;
+
+public enum TransferOutcome {
+    COMPLETED,
+    INSUFFICIENT_FUNDS,
+    ACCOUNT_NOT_FOUND,
+    // Перевод сам по себе проходил, но атомарная группа отменена из-за другого перевода
+    ROLLED_BACK
+}
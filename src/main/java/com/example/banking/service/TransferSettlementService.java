@@ -0,0 +1,117 @@
+package com.example.banking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Проводит группу переводов в текущей транзакции: блокирует затронутые счета в порядке id,
+ * последовательно проверяет каждый перевод по остаткам в памяти и применяет чистые дельты одним UPDATE.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferSettlementService {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<TransferOutcome> settle(List<TransferInstruction> transfers) {
+        return settle(transfers, false);
+    }
+
+    /**
+     * При atomic = true группа проводится только целиком: если хотя бы один перевод не проходит,
+     * в БД ничего не пишется, а прошедшие проверку переводы получают ROLLED_BACK.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<TransferOutcome> settle(List<TransferInstruction> transfers, boolean atomic) {
+        Map<Long, BigDecimal> balances = lockAccounts(transfers);
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        List<TransferInstruction> completed = new ArrayList<>();
+        List<TransferOutcome> outcomes = new ArrayList<>(transfers.size());
+
+        for (TransferInstruction transfer : transfers) {
+            BigDecimal senderBalance = balances.get(transfer.getFromUserId());
+            if (senderBalance == null || !balances.containsKey(transfer.getToUserId())) {
+                outcomes.add(TransferOutcome.ACCOUNT_NOT_FOUND);
+                continue;
+            }
+            if (senderBalance.compareTo(transfer.getAmount()) < 0) {
+                outcomes.add(TransferOutcome.INSUFFICIENT_FUNDS);
+                continue;
+            }
+            balances.put(transfer.getFromUserId(), senderBalance.subtract(transfer.getAmount()));
+            balances.merge(transfer.getToUserId(), transfer.getAmount(), BigDecimal::add);
+            deltas.merge(transfer.getFromUserId(), transfer.getAmount().negate(), BigDecimal::add);
+            deltas.merge(transfer.getToUserId(), transfer.getAmount(), BigDecimal::add);
+            completed.add(transfer);
+            outcomes.add(TransferOutcome.COMPLETED);
+        }
+
+        if (atomic && completed.size() < transfers.size()) {
+            outcomes.replaceAll(outcome -> outcome == TransferOutcome.COMPLETED ? TransferOutcome.ROLLED_BACK : outcome);
+            return outcomes;
+        }
+
+        applyDeltas(deltas);
+        recordTransfers(completed);
+        return outcomes;
+    }
+
+    private void recordTransfers(List<TransferInstruction> transfers) {
+        if (transfers.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(transfers.size());
+        for (TransferInstruction transfer : transfers) {
+            rows.add(new Object[]{transfer.getFromUserId(), transfer.getToUserId(), transfer.getAmount(), now});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO transfer (from_user_id, to_user_id, amount, created_at) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private Map<Long, BigDecimal> lockAccounts(List<TransferInstruction> transfers) {
+        TreeSet<Long> userIds = new TreeSet<>();
+        for (TransferInstruction transfer : transfers) {
+            userIds.add(transfer.getFromUserId());
+            userIds.add(transfer.getToUserId());
+        }
+
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT user_id, balance FROM account WHERE user_id = ANY(?) ORDER BY id FOR UPDATE",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", userIds.toArray())),
+                rs -> {
+                    balances.put(rs.getLong(1), rs.getBigDecimal(2));
+                });
+        return balances;
+    }
+
+    private void applyDeltas(Map<Long, BigDecimal> deltas) {
+        deltas.values().removeIf(delta -> delta.signum() == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Long[] userIds = deltas.keySet().toArray(new Long[0]);
+        BigDecimal[] amounts = deltas.values().toArray(new BigDecimal[0]);
+        jdbcTemplate.update(
+                "UPDATE account a SET balance = a.balance + d.delta " +
+                        "FROM unnest(?::bigint[], ?::numeric[]) AS d(user_id, delta) WHERE a.user_id = d.user_id",
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", userIds));
+                    ps.setArray(2, ps.getConnection().createArrayOf("numeric", amounts));
+                });
+    }
+}
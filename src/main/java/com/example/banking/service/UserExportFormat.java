@@ -0,0 +1,28 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.InvalidSearchParameterException;
+
+import java.util.Locale;
+
+public enum UserExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    UserExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static UserExportFormat of(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchParameterException("Unsupported export format: " + value);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.UserExportRow;
+import com.example.banking.repository.UserExportRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Потоковая выгрузка пользователей в NDJSON или CSV. Первая строка отправляется клиенту сразу,
+ * дальше ответ сбрасывается после каждой порции курсора.
+ */
+@Service
+public class UserExportService {
+    static final String CSV_HEADER = "id,name,date_of_birth,balance,emails,phones,cursor\n";
+
+    private static final JsonFactory JSON = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final UserExportRepository userExportRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserExportService(UserExportRepository userExportRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.userExportRepository = userExportRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Курсор проверяется до начала ответа, чтобы ошибка пришла статусом 400, а не оборванным потоком.
+     */
+    public StreamingResponseBody export(UserExportFormat format, String cursor) {
+        long afterId = UserExportRepository.startAfter(cursor);
+        return out -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(out, format, afterId));
+            } catch (UncheckedIOException e) {
+                // Клиент отключился: транзакция уже откатилась и закрыла курсор
+                throw e.getCause();
+            }
+        };
+    }
+
+    private void write(OutputStream out, UserExportFormat format, long afterId) {
+        int flushEvery = Math.max(1, userExportRepository.getFetchSize());
+        try {
+            RowWriter writer = format == UserExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+            long[] written = {0};
+            userExportRepository.forEachAfter(afterId, row -> {
+                try {
+                    writer.write(row);
+                    long count = ++written[0];
+                    if (count == 1 || count % flushEvery == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface RowWriter {
+        void write(UserExportRow row) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator json;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.json = JSON.createGenerator(out, JsonEncoding.UTF8);
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(UserExportRow row) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", row.getId());
+            json.writeStringField("name", row.getName());
+            json.writeStringField("dateOfBirth", row.getDateOfBirth());
+            if (row.getBalance() == null) {
+                json.writeNullField("balance");
+            } else {
+                json.writeNumberField("balance", row.getBalance());
+            }
+            writeArray("emails", row.getEmails());
+            writeArray("phones", row.getPhones());
+            json.writeStringField("cursor", row.getCursor());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        private void writeArray(String field, List<String> values) throws IOException {
+            json.writeArrayFieldStart(field);
+            for (String value : values) {
+                json.writeString(value);
+            }
+            json.writeEndArray();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+    }
+
+    // Колонки emails и phones через ';', как во входном формате импорта
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            this.writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void write(UserExportRow row) throws IOException {
+            writer.write(Long.toString(row.getId()));
+            writer.write(',');
+            writeField(row.getName());
+            writer.write(',');
+            writeField(row.getDateOfBirth());
+            writer.write(',');
+            if (row.getBalance() != null) {
+                writer.write(row.getBalance().toPlainString());
+            }
+            writer.write(',');
+            writeField(String.join(";", row.getEmails()));
+            writer.write(',');
+            writeField(String.join(";", row.getPhones()));
+            writer.write(',');
+            writer.write(row.getCursor());
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.banking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Строит триграммный индекс по users.name для поиска LIKE '%...%'. Миграция V7 создает его только
+ * на существующей таблице, а на новой базе Flyway выполняется раньше, чем Hibernate создает users,
+ * поэтому индекс достраивается здесь, когда схема уже есть. Повторный запуск на любом узле безопасен.
+ */
+@Slf4j
+@Service
+public class UserSearchIndexService {
+    static final String INDEX_NAME = "idx_users_name_trgm";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${banking.users.search-index.enabled:true}")
+    private boolean enabled = true;
+
+    public UserSearchIndexService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startInBackground() {
+        if (!enabled) {
+            return;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                createIndex();
+            } catch (RuntimeException e) {
+                log.error("User name search index creation failed, it will be retried on next start", e);
+            }
+        }, "user-search-index");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // CONCURRENTLY нельзя выполнить внутри транзакции, а в режиме LEDGER пул отдает соединения с auto-commit=false
+    public void createIndex() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+                if (isInvalidIndex(statement)) {
+                    // Прерванный CONCURRENTLY оставляет невалидный индекс, который IF NOT EXISTS пропустил бы
+                    statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + INDEX_NAME);
+                }
+                statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + INDEX_NAME
+                        + " ON users USING gin (name gin_trgm_ops)");
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    private static boolean isInvalidIndex(Statement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery("SELECT i.indisvalid FROM pg_index i " +
+                "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = '" + INDEX_NAME + "'")) {
+            return rs.next() && !rs.getBoolean(1);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.banking.service;
 
+import com.example.banking.dto.CursorPage;
+import com.example.banking.dto.UserCredentials;
 import com.example.banking.dto.UserSearchDto;
+import com.example.banking.dto.UserSnapshot;
 import com.example.banking.dto.UserUpdateDto;
 import com.example.banking.exception.DuplicateEmailException;
 import com.example.banking.exception.DuplicatePhoneException;
@@ -11,47 +14,79 @@ import com.example.banking.model.User;
 import com.example.banking.repository.EmailDataRepository;
 import com.example.banking.repository.PhoneDataRepository;
 import com.example.banking.repository.UserRepository;
+import com.example.banking.security.BankingUserDetails;
 import com.example.banking.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
     private final EmailDataRepository emailDataRepository;
     private final PhoneDataRepository phoneDataRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final CacheManager cacheManager;
+
+    @Value("${banking.admin.usernames:}")
+    private Set<String> adminUsernames = Set.of();
 
     @Override
     public UserDetails loadUserByUsername(String name) throws UsernameNotFoundException {
-        User user = userRepository.findByName(name)
+        UserCredentials user = userRepository.findCredentialsByName(name)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with name: " + name));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getName())
-                .password(user.getPassword())
-                .authorities("USER")
-                .build();
+        return new BankingUserDetails(user.getId(), user.getName(), user.getPassword(), authorities(user.getName()));
+    }
+
+    private List<GrantedAuthority> authorities(String name) {
+        return adminUsernames.contains(name)
+                ? AuthorityUtils.createAuthorityList(BankingUserDetails.USER, BankingUserDetails.ADMIN)
+                : AuthorityUtils.createAuthorityList(BankingUserDetails.USER);
+    }
+
+    /**
+     * Вызывается DaoAuthenticationProvider после успешного входа, если хеш устарел
+     * (старый формат без {bcrypt} или стоимость ниже banking.password.bcrypt-strength).
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Long userId = user instanceof BankingUserDetails
+                ? ((BankingUserDetails) user).getUserId()
+                : userRepository.findCredentialsByName(user.getUsername()).map(UserCredentials::getId).orElse(null);
+        if (userId == null || userRepository.replacePasswordHash(userId, user.getPassword(), newPassword) == 0) {
+            return user;
+        }
+        evictCredentials(user.getUsername(), user.getUsername());
+        return new BankingUserDetails(userId, user.getUsername(), newPassword, user.getAuthorities());
     }
 
     @CacheEvict(value = "users", key = "#userId")
     @Transactional
-    public User updateUserData(Long userId, UserUpdateDto updateDto) {
-        User user = getUser(userId);
+    public UserSnapshot updateUserData(Long userId, UserUpdateDto updateDto) {
+        User user = findUser(userId);
+        String previousName = user.getName();
 
         if (updateDto.getName() != null) {
             user.setName(updateDto.getName());
@@ -73,26 +108,57 @@ public class UserService implements UserDetailsService {
             processPhoneUpdates(user, updateDto.getPhones());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        if (updateDto.getName() != null || updateDto.getPassword() != null) {
+            evictCredentials(previousName, saved.getName());
+        }
+        return UserSnapshot.from(saved);
     }
 
+    // Кэш обернут в TransactionAwareCacheDecorator, поэтому сброс произойдет после коммита
+    private void evictCredentials(String previousName, String currentName) {
+        Cache credentials = cacheManager.getCache("credentials");
+        if (credentials == null) {
+            return;
+        }
+        credentials.evict(previousName);
+        if (!previousName.equals(currentName)) {
+            credentials.evict(currentName);
+        }
+    }
+
+    // Контакты пользователя индексируются по id, а уникальность всех новых и измененных значений
+    // проверяется одним IN-запросом; вставки, изменения и удаления уходят JDBC-пачками при flush
     private void processEmailUpdates(User user, Set<UserUpdateDto.EmailData> emailUpdates) {
-        Set<EmailData> emailsToKeep = new HashSet<>();
+        Map<Long, EmailData> existingById = new HashMap<>();
+        for (EmailData email : user.getEmails()) {
+            existingById.put(email.getId(), email);
+        }
+
+        Set<String> candidates = new HashSet<>();
+        for (UserUpdateDto.EmailData emailData : emailUpdates) {
+            EmailData existing = emailData.getId() != null ? existingById.get(emailData.getId()) : null;
+            if (emailData.getId() != null && existing == null) {
+                throw new IllegalArgumentException("Email not found with id: " + emailData.getId());
+            }
+            if (existing == null || !existing.getEmail().equals(emailData.getEmail())) {
+                candidates.add(emailData.getEmail());
+            }
+        }
+        if (!candidates.isEmpty()) {
+            List<String> taken = emailDataRepository.findExistingEmails(candidates);
+            if (!taken.isEmpty()) {
+                throw new DuplicateEmailException("Email already exists: " + taken.get(0));
+            }
+        }
 
+        Set<EmailData> emailsToKeep = new HashSet<>();
         for (UserUpdateDto.EmailData emailData : emailUpdates) {
             if (emailData.getId() != null) {
-                EmailData existingEmail = user.getEmails().stream()
-                        .filter(e -> e.getId().equals(emailData.getId()))
-                        .findFirst()
-                        .orElseThrow(() -> new IllegalArgumentException("Email not found with id: " + emailData.getId()));
-
-                if (!existingEmail.getEmail().equals(emailData.getEmail())) {
-                    validateEmailUniqueness(emailData.getEmail());
-                    existingEmail.setEmail(emailData.getEmail());
-                }
+                EmailData existingEmail = existingById.get(emailData.getId());
+                existingEmail.setEmail(emailData.getEmail());
                 emailsToKeep.add(existingEmail);
             } else {
-                validateEmailUniqueness(emailData.getEmail());
                 EmailData newEmail = new EmailData();
                 newEmail.setEmail(emailData.getEmail());
                 newEmail.setUser(user);
@@ -105,22 +171,35 @@ public class UserService implements UserDetailsService {
     }
 
     private void processPhoneUpdates(User user, Set<UserUpdateDto.PhoneData> phoneUpdates) {
-        Set<PhoneData> phonesToKeep = new HashSet<>();
+        Map<Long, PhoneData> existingById = new HashMap<>();
+        for (PhoneData phone : user.getPhones()) {
+            existingById.put(phone.getId(), phone);
+        }
 
+        Set<String> candidates = new HashSet<>();
+        for (UserUpdateDto.PhoneData phoneData : phoneUpdates) {
+            PhoneData existing = phoneData.getId() != null ? existingById.get(phoneData.getId()) : null;
+            if (phoneData.getId() != null && existing == null) {
+                throw new IllegalArgumentException("Phone not found with id: " + phoneData.getId());
+            }
+            if (existing == null || !existing.getPhone().equals(phoneData.getPhone())) {
+                candidates.add(phoneData.getPhone());
+            }
+        }
+        if (!candidates.isEmpty()) {
+            List<String> taken = phoneDataRepository.findExistingPhones(candidates);
+            if (!taken.isEmpty()) {
+                throw new DuplicatePhoneException("Phone already exists: " + taken.get(0));
+            }
+        }
+
+        Set<PhoneData> phonesToKeep = new HashSet<>();
         for (UserUpdateDto.PhoneData phoneData : phoneUpdates) {
             if (phoneData.getId() != null) {
-                PhoneData existingPhone = user.getPhones().stream()
-                        .filter(p -> p.getId().equals(phoneData.getId()))
-                        .findFirst()
-                        .orElseThrow(() -> new IllegalArgumentException("Phone not found with id: " + phoneData.getId()));
-
-                if (!existingPhone.getPhone().equals(phoneData.getPhone())) {
-                    validatePhoneUniqueness(phoneData.getPhone());
-                    existingPhone.setPhone(phoneData.getPhone());
-                }
+                PhoneData existingPhone = existingById.get(phoneData.getId());
+                existingPhone.setPhone(phoneData.getPhone());
                 phonesToKeep.add(existingPhone);
             } else {
-                validatePhoneUniqueness(phoneData.getPhone());
                 PhoneData newPhone = new PhoneData();
                 newPhone.setPhone(phoneData.getPhone());
                 newPhone.setUser(user);
@@ -132,44 +211,27 @@ public class UserService implements UserDetailsService {
         user.getPhones().addAll(phonesToKeep);
     }
 
-    private void validateEmailUniqueness(String email) {
-        if (emailDataRepository.existsByEmail(email)) {
-            throw new DuplicateEmailException("Email already exists: " + email);
-        }
-    }
-
-    private void validatePhoneUniqueness(String phone) {
-        if (phoneDataRepository.existsByPhone(phone)) {
-            throw new DuplicatePhoneException("Phone already exists: " + phone);
-        }
-    }
-
     @Cacheable(value = "users", key = "#userId")
     @Transactional(readOnly = true)
-    public User getUser(Long userId) {
-        return userRepository.findById(userId)
+    public UserSnapshot getUser(Long userId) {
+        return userRepository.findSnapshotById(userId)
+                .orElseThrow(() -> new UserNotFoundException(userId));
+    }
+
+    // Изменение контактов работает с обеими коллекциями: emails читаются вместе с пользователем, phones вторым запросом
+    private User findUser(Long userId) {
+        return userRepository.findWithContactsById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
     }
 
     @Transactional(readOnly = true)
-    public Page<User> searchUsers(UserSearchDto searchDto, Pageable pageable) {
-        return userRepository.searchUsers(
-                searchDto.getName(),
-                searchDto.getDateOfBirth(),
-                searchDto.getEmail(),
-                searchDto.getPhone(),
-                pageable
-        );
+    public CursorPage<UserSnapshot> searchUsers(UserSearchDto searchDto, String cursor, int size, boolean includeCount) {
+        return userRepository.search(searchDto, cursor, size, includeCount);
     }
 
     public String generateTokenForUser(Long userId) {
-        User user = getUser(userId);
-        return jwtUtil.generateToken(
-                org.springframework.security.core.userdetails.User.builder()
-                        .username(user.getName())
-                        .password("")
-                        .authorities("USER")
-                        .build()
-        );
+        UserSnapshot user = getUser(userId);
+        return jwtUtil.generateToken(new BankingUserDetails(user.getId(), user.getName(), "",
+                authorities(user.getName())));
     }
 }
\ No newline at end of file
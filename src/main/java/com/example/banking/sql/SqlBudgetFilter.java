@@ -0,0 +1,110 @@
+package com.example.banking.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTags;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Считает SQL каждого HTTP-запроса и сравнивает с бюджетом banking.sql.budget.*. При превышении пишет
+ * предупреждение с самыми частыми повторами SQL (след N+1 по ленивым коллекциям User).
+ * Запросы, выполненные вне потока запроса (StreamingResponseBody экспорта, фоновые задачи), сюда не попадают.
+ */
+@Slf4j
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    private static final int REPEATED_IN_LOG = 3;
+
+    private final MeterRegistry registry;
+    private final int maxStatements;
+    private final long maxDbTimeNanos;
+    // Метры по method + uri создаются один раз, дальше берутся из карты
+    private final ConcurrentMap<String, EndpointMeters> meters = new ConcurrentHashMap<>();
+
+    public SqlBudgetFilter(MeterRegistry registry, int maxStatements, long maxDbTimeMs) {
+        this.registry = registry;
+        this.maxStatements = maxStatements;
+        this.maxDbTimeNanos = TimeUnit.MILLISECONDS.toNanos(maxDbTimeMs);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = new SqlRequestStats();
+        request.setAttribute(SqlRequestStats.ATTRIBUTE, stats);
+        SqlRequestStats previous = SqlTracingListener.open(stats);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlTracingListener.close(previous);
+            record(request, response, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, SqlRequestStats stats) {
+        // Шаблон пути, а не сам путь: иначе каждый id давал бы новую серию
+        String uri = WebMvcTags.uri(request, response).getValue();
+        EndpointMeters endpoint = meters.computeIfAbsent(request.getMethod() + ' ' + uri,
+                key -> new EndpointMeters(registry, request.getMethod(), uri));
+        endpoint.statements.record(stats.getStatements());
+        endpoint.dbTime.record(stats.getDbTimeNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() > maxStatements || stats.getDbTimeNanos() > maxDbTimeNanos) {
+            endpoint.budgetExceeded.increment();
+            log.warn("SQL budget exceeded: method={} uri={} path={} status={} statements={} maxStatements={} "
+                            + "dbTimeMs={} maxDbTimeMs={} repeated={}",
+                    request.getMethod(), uri, request.getRequestURI(), response.getStatus(),
+                    stats.getStatements(), maxStatements, stats.getDbTimeMillis(),
+                    TimeUnit.NANOSECONDS.toMillis(maxDbTimeNanos), describe(stats.getRepeatedStatements(REPEATED_IN_LOG)));
+        }
+    }
+
+    private static String describe(List<Map.Entry<String, Integer>> repeated) {
+        return repeated.stream()
+                .map(entry -> entry.getValue() + "x " + SqlTracingListener.abbreviate(entry.getKey()))
+                .collect(Collectors.joining(" | ", "[", "]"));
+    }
+
+    private static final class EndpointMeters {
+        final DistributionSummary statements;
+        final Timer dbTime;
+        final Counter budgetExceeded;
+
+        EndpointMeters(MeterRegistry registry, String method, String uri) {
+            Tags tags = Tags.of("method", method, "uri", uri);
+            statements = DistributionSummary.builder("banking.sql.statements")
+                    .description("SQL statements per HTTP request")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1000.0)
+                    .register(registry);
+            dbTime = Timer.builder("banking.sql.time")
+                    .description("Total SQL time per HTTP request")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(50_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(registry);
+            budgetExceeded = Counter.builder("banking.sql.budget.exceeded")
+                    .description("HTTP requests over the SQL statement or time budget")
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.banking.sql;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL, выполненные в потоке одного HTTP-запроса: число обращений к БД (пакет — одно обращение),
+ * суммарное время и повторы одинаковых запросов. Заполняется только из потока запроса, поэтому без синхронизации.
+ * Тесты получают объект из атрибута запроса {@link #ATTRIBUTE}.
+ */
+public class SqlRequestStats {
+    public static final String ATTRIBUTE = SqlRequestStats.class.getName();
+    // Ограничение памяти на запрос с динамическим SQL
+    private static final int MAX_DISTINCT_STATEMENTS = 100;
+
+    private final Map<String, Integer> repeats = new HashMap<>();
+    private int statements;
+    private long dbTimeNanos;
+    private long startedAt;
+
+    void started() {
+        startedAt = System.nanoTime();
+    }
+
+    void finished(String sql) {
+        dbTimeNanos += System.nanoTime() - startedAt;
+        statements++;
+        if (repeats.size() < MAX_DISTINCT_STATEMENTS || repeats.containsKey(sql)) {
+            repeats.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getDbTimeNanos() {
+        return dbTimeNanos;
+    }
+
+    public long getDbTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(dbTimeNanos);
+    }
+
+    /**
+     * SQL, выполненные больше одного раза, по убыванию числа повторов — так обычно выглядит N+1.
+     */
+    public List<Map.Entry<String, Integer>> getRepeatedStatements(int limit) {
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : repeats.entrySet()) {
+            if (entry.getValue() > 1) {
+                repeated.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed());
+        return repeated.size() > limit ? repeated.subList(0, limit) : repeated;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.banking.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Слушатель datasource-proxy: относит каждый SQL к статистике текущего запроса (если поток обслуживает
+ * HTTP-запрос или {@link #track}) и логирует отдельные медленные запросы.
+ */
+@Slf4j
+public class SqlTracingListener implements QueryExecutionListener {
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+    private static final int MAX_LOGGED_SQL_LENGTH = 1000;
+
+    private final long slowQueryMs;
+    private final Counter slowQueries;
+
+    public SqlTracingListener(long slowQueryMs, MeterRegistry registry) {
+        this.slowQueryMs = slowQueryMs;
+        this.slowQueries = Counter.builder("banking.sql.slow")
+                .description("SQL statements slower than banking.sql.slow-query-ms")
+                .register(registry);
+    }
+
+    /**
+     * Считает SQL, выполненные action в текущем потоке; для тестов на число запросов.
+     */
+    public static SqlRequestStats track(Runnable action) {
+        SqlRequestStats stats = new SqlRequestStats();
+        SqlRequestStats previous = open(stats);
+        try {
+            action.run();
+        } finally {
+            close(previous);
+        }
+        return stats;
+    }
+
+    static SqlRequestStats open(SqlRequestStats stats) {
+        SqlRequestStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return previous;
+    }
+
+    static void close(SqlRequestStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlRequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.started();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        SqlRequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.finished(sql);
+        }
+        if (execInfo.getElapsedTime() >= slowQueryMs) {
+            slowQueries.increment();
+            log.warn("Slow SQL: elapsedMs={} batchSize={} success={} sql={}", execInfo.getElapsedTime(),
+                    execInfo.isBatch() ? execInfo.getBatchSize() : 0, execInfo.isSuccess(), abbreviate(sql));
+        }
+    }
+
+    static String abbreviate(String sql) {
+        return sql.length() > MAX_LOGGED_SQL_LENGTH ? sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "..." : sql;
+    }
+}
@@ -0,0 +1,6 @@
+-- Последовательности для pooled-lo: каждый nextval резервирует блок из 50 id, начиная с текущего значения
+CREATE SEQUENCE IF NOT EXISTS email_data_seq INCREMENT BY 50;
+SELECT setval('email_data_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM email_data), false);
+
+CREATE SEQUENCE IF NOT EXISTS phone_data_seq INCREMENT BY 50;
+SELECT setval('phone_data_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM phone_data), false);
@@ -0,0 +1,11 @@
+-- Последовательности для pooled-lo у users и account (см. V10); users создает Hibernate, поэтому setval под проверкой
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+DO $$
+BEGIN
+    IF to_regclass('users') IS NOT NULL THEN
+        PERFORM setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users), false);
+    END IF;
+END $$;
+
+CREATE SEQUENCE IF NOT EXISTS account_seq INCREMENT BY 50;
+SELECT setval('account_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM account), false);
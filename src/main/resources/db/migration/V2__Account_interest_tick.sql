@@ -0,0 +1 @@
+ALTER TABLE account ADD COLUMN IF NOT EXISTS last_interest_tick BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+CREATE TABLE IF NOT EXISTS ledger_checkpoint (
+    journal_id   VARCHAR(100) PRIMARY KEY,
+    last_segment BIGINT       NOT NULL
+);
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS transfer (
+    id           BIGSERIAL PRIMARY KEY,
+    from_user_id BIGINT                   NOT NULL,
+    to_user_id   BIGINT                   NOT NULL,
+    amount       DECIMAL(19,2)            NOT NULL,
+    created_at   TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_transfer_from_user ON transfer (from_user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_transfer_to_user ON transfer (to_user_id, created_at);
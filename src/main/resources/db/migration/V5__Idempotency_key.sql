@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    user_id             BIGINT                   NOT NULL,
+    idempotency_key     VARCHAR(255)             NOT NULL,
+    request_fingerprint VARCHAR(100)             NOT NULL,
+    status              VARCHAR(20)              NOT NULL,
+    response_status     INT,
+    response_code       VARCHAR(50),
+    response_message    VARCHAR(500),
+    created_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+    PRIMARY KEY (user_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_created_at ON idempotency_key (created_at);
@@ -0,0 +1,7 @@
+-- Таблицу users создает Hibernate (ddl-auto=update) после миграций, на чистой БД индекс создаст он же по @Index
+DO $$
+BEGIN
+    IF to_regclass('users') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_users_name ON users (name);
+    END IF;
+END $$;
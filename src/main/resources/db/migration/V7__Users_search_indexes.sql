@@ -0,0 +1,9 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- LIKE '%...%' по имени использует триграммный индекс вместо полного сканирования
+DO $$
+BEGIN
+    IF to_regclass('users') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS idx_users_name_trgm ON users USING gin (name gin_trgm_ops);
+    END IF;
+END $$;
@@ -0,0 +1,7 @@
+-- Колонка заполняется онлайн пачками (BirthDateBackfillService), индекс строится им же через CREATE INDEX CONCURRENTLY
+DO $$
+BEGIN
+    IF to_regclass('users') IS NOT NULL THEN
+        ALTER TABLE users ADD COLUMN IF NOT EXISTS birth_date DATE;
+    END IF;
+END $$;
@@ -0,0 +1,3 @@
+-- Контакты пользователя читаются по user_id при сборке UserSnapshot
+CREATE INDEX IF NOT EXISTS idx_email_data_user_id ON email_data (user_id);
+CREATE INDEX IF NOT EXISTS idx_phone_data_user_id ON phone_data (user_id);
@@ -0,0 +1,48 @@
+package com.example.banking.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+
+    private final RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig();
+
+    @Test
+    void valueSerializers_NoFormatProperty_UsesCompactFormatWhereAvailable() {
+        // Act
+        Map<String, RedisCacheConfiguration> configurations = CacheConfig.valueSerializers(defaults, new MockEnvironment());
+
+        // Assert
+        assertEquals(1, configurations.size());
+        assertEquals("users:v" + UserSnapshotRedisSerializer.FORMAT_VERSION + "::",
+                configurations.get("users").getKeyPrefixFor("users"));
+    }
+
+    @Test
+    void valueSerializers_JdkFormat_FallsBackToDefaults() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("banking.cache.users.format", "JDK")
+                .withProperty("banking.cache.local.users.max-size", "0");
+
+        // Act
+        Map<String, RedisCacheConfiguration> configurations = CacheConfig.valueSerializers(defaults, environment);
+
+        // Assert
+        assertTrue(configurations.isEmpty());
+    }
+
+    @Test
+    void valueSerializers_CompactFormatWithoutSerializer_Throws() {
+        // Arrange
+        MockEnvironment environment = new MockEnvironment().withProperty("banking.cache.credentials.format", "COMPACT");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> CacheConfig.valueSerializers(defaults, environment));
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.banking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerDataSourceConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(LedgerDataSourceConfig.class)
+            .withPropertyValues("spring.datasource.url=jdbc:postgresql://localhost:5433/bankapp");
+
+    @Test
+    void ledgerMode_DisablesAutoCommitAndDefersConnection() {
+        contextRunner.withPropertyValues("banking.transfer.mode=LEDGER").run(context -> {
+            assertFalse(context.getBean(HikariDataSource.class).isAutoCommit());
+
+            Map<String, Object> hibernateProperties = new HashMap<>();
+            context.getBean(HibernatePropertiesCustomizer.class).customize(hibernateProperties);
+            assertEquals(true, hibernateProperties.get(AvailableSettings.CONNECTION_PROVIDER_DISABLES_AUTOCOMMIT));
+        });
+    }
+
+    @Test
+    void otherModes_KeepAutoCommit() {
+        contextRunner.withPropertyValues("banking.transfer.mode=ROW_LOCK").run(context -> {
+            assertTrue(context.getBean(HikariDataSource.class).isAutoCommit());
+            assertTrue(context.getBeansOfType(HibernatePropertiesCustomizer.class).isEmpty());
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.banking.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.jdbc.DataSourcePoolMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlTracingConfigTest {
+
+    // Метрики пула зависят от DataSource, поэтому обертка не должна требовать MeterRegistry при его создании
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    DataSourceAutoConfiguration.class,
+                    MetricsAutoConfiguration.class,
+                    SimpleMetricsExportAutoConfiguration.class,
+                    DataSourcePoolMetricsAutoConfiguration.class))
+            .withUserConfiguration(SqlTracingConfig.class)
+            .withPropertyValues("spring.datasource.url=jdbc:postgresql://localhost:5433/bankapp");
+
+    @Test
+    void context_WithDataSourcePoolMetrics_StartsAndWrapsDataSource() {
+        contextRunner.run(context -> {
+            assertNull(context.getStartupFailure());
+            assertInstanceOf(ProxyDataSource.class, context.getBean(DataSource.class));
+        });
+    }
+
+    @Test
+    void context_TracingDisabled_LeavesDataSourceUnwrapped() {
+        contextRunner.withPropertyValues("banking.sql.tracing.enabled=false").run(context -> {
+            assertNull(context.getStartupFailure());
+            assertFalse(context.getBean(DataSource.class) instanceof ProxyDataSource);
+        });
+    }
+}
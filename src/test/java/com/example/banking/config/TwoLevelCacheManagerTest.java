@@ -0,0 +1,56 @@
+package com.example.banking.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockEnvironment environment;
+    private TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        environment = new MockEnvironment();
+        cacheManager = new TwoLevelCacheManager(new ConcurrentMapCacheManager(), mock(StringRedisTemplate.class),
+                environment, meterRegistry);
+    }
+
+    @Test
+    void getCache_LocalLevel_PublishesHitAndMissCounters() {
+        // Arrange
+        Cache cache = cacheManager.getCache("users");
+        cache.put(1L, "user-1");
+
+        // Act
+        cache.get(1L);
+        cache.get(2L);
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", "users", "level", "local", "result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tags("cache", "users", "level", "local", "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void getCache_LocalLevelDisabled_NoLocalMetrics() {
+        // Arrange
+        environment.setProperty("banking.cache.local.users.max-size", "0");
+
+        // Act
+        cacheManager.getCache("users");
+
+        // Assert
+        assertNull(meterRegistry.find("cache.gets").tag("level", "local").functionCounter());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.banking.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TwoLevelCacheTest {
+
+    private Cache remote;
+    private List<String> published;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = spy(new ConcurrentMapCache("users", false));
+        published = new ArrayList<>();
+        cache = new TwoLevelCache("users", remote, Caffeine.newBuilder().maximumSize(100).build(),
+                (cacheName, key) -> published.add(cacheName + ":" + key));
+    }
+
+    @Test
+    void get_SecondHit_ServedFromLocalWithoutRemoteCall() {
+        // Arrange
+        remote.put(1L, "user-1");
+
+        // Act
+        Cache.ValueWrapper first = cache.get(1L);
+        Cache.ValueWrapper second = cache.get(1L);
+
+        // Assert
+        assertEquals("user-1", first.get());
+        assertEquals("user-1", second.get());
+        verify(remote, times(1)).get(1L);
+    }
+
+    @Test
+    void evict_RemovesBothLevelsAndPublishes() {
+        // Arrange
+        cache.put(1L, "user-1");
+        published.clear();
+
+        // Act
+        cache.evict(1L);
+
+        // Assert
+        assertNull(cache.get(1L));
+        assertEquals(List.of("users:1"), published);
+    }
+
+    @Test
+    void evictLocal_FromOtherNode_NextReadGoesToRemote() {
+        // Arrange
+        cache.put(1L, "user-1");
+        remote.put(1L, "user-1-updated");
+
+        // Act
+        cache.evictLocal("1");
+
+        // Assert
+        assertEquals("user-1-updated", cache.get(1L).get());
+    }
+
+    @Test
+    void get_EvictDuringRemoteRead_DoesNotRepopulateStaleValue() {
+        // Arrange: evict приходит между чтением Redis и записью в локальный уровень
+        remote.put(1L, "user-1");
+        doAnswer(inv -> {
+            Cache.ValueWrapper stale = (Cache.ValueWrapper) inv.callRealMethod();
+            cache.evict(1L);
+            return stale;
+        }).doCallRealMethod().when(remote).get(1L);
+
+        // Act
+        Cache.ValueWrapper raced = cache.get(1L);
+        Cache.ValueWrapper next = cache.get(1L);
+
+        // Assert
+        assertEquals("user-1", raced.get());
+        assertNull(next);
+        verify(remote, times(2)).get(1L);
+    }
+
+    @Test
+    void get_InvalidationFromOtherNodeDuringRemoteRead_NextReadGoesToRemote() {
+        // Arrange: другой узел обновил значение, пока этот читал старое из Redis
+        remote.put(1L, "user-1");
+        doAnswer(inv -> {
+            Cache.ValueWrapper stale = (Cache.ValueWrapper) inv.callRealMethod();
+            remote.put(1L, "user-1-updated");
+            cache.evictLocal("1");
+            return stale;
+        }).doCallRealMethod().when(remote).get(1L);
+
+        // Act
+        cache.get(1L);
+        Cache.ValueWrapper next = cache.get(1L);
+
+        // Assert
+        assertEquals("user-1-updated", next.get());
+    }
+
+    @Test
+    void get_WithLoader_PopulatesLocalLevel() {
+        // Act
+        String loaded = cache.get(2L, () -> "user-2");
+        remote.evict(2L);
+
+        // Assert
+        assertEquals("user-2", loaded);
+        assertEquals("user-2", cache.get(2L, String.class));
+    }
+}
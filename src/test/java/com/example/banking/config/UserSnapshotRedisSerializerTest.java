@@ -0,0 +1,55 @@
+package com.example.banking.config;
+
+import com.example.banking.dto.UserSnapshot;
+import com.example.banking.model.EmailData;
+import com.example.banking.model.PhoneData;
+import com.example.banking.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSnapshotRedisSerializerTest {
+
+    private final UserSnapshotRedisSerializer serializer = new UserSnapshotRedisSerializer();
+
+    @Test
+    void roundTrip_PreservesAllFields() {
+        // Arrange
+        UserSnapshot snapshot = UserSnapshot.from(user());
+
+        // Act
+        byte[] bytes = serializer.serialize(snapshot);
+        UserSnapshot restored = serializer.deserialize(bytes);
+
+        // Assert
+        assertEquals(snapshot, restored);
+        assertEquals("Иван Петров", restored.getName());
+        assertEquals(2, restored.getEmails().size());
+        assertEquals(10L, restored.getEmails().get(0).getId());
+        // Поля без имен классов и заголовков потока: около сотни байт на пользователя
+        assertTrue(bytes.length < 160, "snapshot took " + bytes.length + " bytes");
+    }
+
+    @Test
+    void deserialize_UnknownVersion_Throws() {
+        // Arrange
+        byte[] bytes = serializer.serialize(UserSnapshot.from(user()));
+        bytes[0] = 99;
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> serializer.deserialize(bytes));
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setName("Иван Петров");
+        user.setDateOfBirth("01.01.1990");
+        user.setPassword("hashed-password");
+        user.getEmails().add(new EmailData(11L, user, "second@example.com"));
+        user.getEmails().add(new EmailData(10L, user, "first@example.com"));
+        user.getPhones().add(new PhoneData(20L, user, "79001234567"));
+        return user;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.banking.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+
+    @Test
+    void newThreadPerTaskExecutor_BeforeJava21_FailsWithHint() {
+        assumeFalse(VirtualThreads.isSupported());
+
+        // Act
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> VirtualThreads.newThreadPerTaskExecutor("test-"));
+
+        // Assert
+        assertTrue(failure.getMessage().contains("banking.execution.mode=PLATFORM"));
+    }
+
+    @Test
+    void newThreadPerTaskExecutor_OnJava21_RunsTasksOnNamedVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+
+        // Arrange
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-");
+
+        // Act
+        Future<String> first = executor.submit(() -> Thread.currentThread().getName());
+        Future<Boolean> virtual = executor.submit(() -> (Boolean) Thread.class.getMethod("isVirtual")
+                .invoke(Thread.currentThread()));
+        executor.shutdown();
+
+        // Assert
+        assertTrue(first.get().startsWith("test-"));
+        assertTrue(virtual.get());
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
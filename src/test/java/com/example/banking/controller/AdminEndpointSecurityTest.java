@@ -0,0 +1,116 @@
+package com.example.banking.controller;
+
+import com.example.banking.config.JwtConfig;
+import com.example.banking.importer.UserImportFormat;
+import com.example.banking.importer.UserImportReport;
+import com.example.banking.importer.UserImportService;
+import com.example.banking.security.BankingUserDetails;
+import com.example.banking.security.JwtUtil;
+import com.example.banking.service.UserExportFormat;
+import com.example.banking.service.UserExportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {UserExportController.class, UserImportController.class}, properties = {
+        "banking.export.endpoint-enabled=true",
+        "banking.import.endpoint-enabled=true",
+        "banking.sql.tracing.enabled=false",
+        "jwt.secret=test-secret-key-that-is-long-enough-for-hs512-signatures-0123456789"
+})
+@Import({JwtConfig.class, JwtUtil.class, AdminEndpointSecurityTest.Infrastructure.class})
+class AdminEndpointSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private UserExportService userExportService;
+
+    @MockBean
+    private UserImportService userImportService;
+
+    @Test
+    void export_RegularUserToken_IsForbidden() throws Exception {
+        mockMvc.perform(get("/api/admin/users/export").header("Authorization", bearer(BankingUserDetails.USER)))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(userExportService);
+    }
+
+    @Test
+    void export_AdminToken_IsAllowed() throws Exception {
+        when(userExportService.export(any(UserExportFormat.class), isNull())).thenReturn(out -> { });
+
+        mockMvc.perform(get("/api/admin/users/export").header("Authorization",
+                        bearer(BankingUserDetails.USER, BankingUserDetails.ADMIN)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void export_NoToken_IsRejected() throws Exception {
+        mockMvc.perform(get("/api/admin/users/export"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void import_RegularUserToken_IsForbidden() throws Exception {
+        mockMvc.perform(post("/api/admin/users/import").header("Authorization", bearer(BankingUserDetails.USER))
+                        .content("name,date_of_birth,password,emails,phones,initial_deposit\n"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    void import_AdminToken_IsAllowed() throws Exception {
+        when(userImportService.importUsers(any(), eq(UserImportFormat.CSV))).thenReturn(new UserImportReport(0, 0, 0, 0, 0, 0, List.of()));
+
+        mockMvc.perform(post("/api/admin/users/import").header("Authorization",
+                        bearer(BankingUserDetails.USER, BankingUserDetails.ADMIN))
+                        .content("name,date_of_birth,password,emails,phones,initial_deposit\n"))
+                .andExpect(status().isOk());
+    }
+
+    private String bearer(String... authorities) {
+        return "Bearer " + jwtUtil.generateToken(new BankingUserDetails(1L, "user", "",
+                AuthorityUtils.createAuthorityList(authorities)));
+    }
+
+    // Вход по паролю здесь не проверяется: SecurityConfig нужен лишь какой-нибудь UserDetailsService
+    @TestConfiguration
+    static class Infrastructure {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        UserDetailsService userDetailsService() {
+            return name -> {
+                throw new UsernameNotFoundException(name);
+            };
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.banking.controller;
 
+import com.example.banking.dto.CursorPage;
 import com.example.banking.dto.UserSearchDto;
+import com.example.banking.dto.UserSnapshot;
 import com.example.banking.dto.UserUpdateDto;
 import com.example.banking.model.User;
-import com.example.banking.security.JwtUtil;
+import com.example.banking.security.JwtPrincipal;
 import com.example.banking.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,10 +13,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -30,6 +28,7 @@ import java.util.Set;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,16 +37,13 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
-    @Mock
-    private JwtUtil jwtUtil;
-
     @InjectMocks
     private UserController userController;
 
     private static final Long USER_ID = 1L;
-    private static final String VALID_TOKEN = "Bearer valid.token.here";
-    private static final String INVALID_TOKEN = "Bearer invalid.token.here";
     private static final Long OTHER_USER_ID = 2L;
+    private static final JwtPrincipal OWN_PRINCIPAL = new JwtPrincipal(USER_ID, "Test User");
+    private static final JwtPrincipal OTHER_PRINCIPAL = new JwtPrincipal(OTHER_USER_ID, "Other User");
 
     private User testUser;
     private UserUpdateDto updateDto;
@@ -75,32 +71,27 @@ class UserControllerTest {
     }
 
     @Test
-    void getUser_WithValidTokenAndOwnId_ReturnsUser() {
+    void getUser_WithOwnId_ReturnsUser() {
         // Arrange
-        when(jwtUtil.extractUserId(VALID_TOKEN)).thenReturn(USER_ID);
-        when(userService.getUser(USER_ID)).thenReturn(testUser);
+        UserSnapshot snapshot = UserSnapshot.from(testUser);
+        when(userService.getUser(USER_ID)).thenReturn(snapshot);
 
         // Act
-        ResponseEntity<User> response = userController.getUser(USER_ID, VALID_TOKEN);
+        ResponseEntity<UserSnapshot> response = userController.getUser(USER_ID, OWN_PRINCIPAL);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(testUser, response.getBody());
-        verify(jwtUtil).extractUserId(VALID_TOKEN);
+        assertEquals(snapshot, response.getBody());
         verify(userService).getUser(USER_ID);
     }
 
     @Test
-    void getUser_WithInvalidToken_ThrowsAccessDeniedException() {
-        // Arrange
-        when(jwtUtil.extractUserId(INVALID_TOKEN)).thenReturn(OTHER_USER_ID);
-
+    void getUser_ForAnotherUser_ThrowsAccessDeniedException() {
         // Act & Assert
         assertThrows(AccessDeniedException.class, () -> {
-            userController.getUser(USER_ID, INVALID_TOKEN);
+            userController.getUser(USER_ID, OTHER_PRINCIPAL);
         });
 
-        verify(jwtUtil).extractUserId(INVALID_TOKEN);
         verifyNoInteractions(userService);
     }
 
@@ -111,69 +102,61 @@ class UserControllerTest {
         String dateOfBirth = "01.01.1990";
         String email = "test@example.com";
         String phone = "12345678901";
-        int page = 0;
         int size = 10;
 
-        Pageable pageable = PageRequest.of(page, size);
-        Page<User> expectedPage = new PageImpl<>(List.of(testUser));
+        CursorPage<UserSnapshot> expectedPage = new CursorPage<>(List.of(UserSnapshot.from(testUser)), null, false, null);
 
-        when(userService.searchUsers(any(UserSearchDto.class), eq(pageable))).thenReturn(expectedPage);
+        when(userService.searchUsers(any(UserSearchDto.class), isNull(), eq(size), eq(false))).thenReturn(expectedPage);
 
         // Act
-        ResponseEntity<Page<User>> response = userController.searchUsers(
-                name, dateOfBirth, email, phone, page, size);
+        ResponseEntity<CursorPage<UserSnapshot>> response = userController.searchUsers(
+                name, dateOfBirth, email, phone, null, size, false);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedPage, response.getBody());
-        verify(userService).searchUsers(any(UserSearchDto.class), eq(pageable));
+        verify(userService).searchUsers(any(UserSearchDto.class), isNull(), eq(size), eq(false));
     }
 
     @Test
     void searchUsers_WithNoParameters_ReturnsPageOfUsers() {
         // Arrange
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<User> expectedPage = new PageImpl<>(Collections.emptyList());
+        CursorPage<UserSnapshot> expectedPage = new CursorPage<>(Collections.emptyList(), null, false, 0L);
 
-        when(userService.searchUsers(any(UserSearchDto.class), eq(pageable))).thenReturn(expectedPage);
+        when(userService.searchUsers(any(UserSearchDto.class), isNull(), eq(10), eq(true))).thenReturn(expectedPage);
 
         // Act
-        ResponseEntity<Page<User>> response = userController.searchUsers(
-                null, null, null, null, 0, 10);
+        ResponseEntity<CursorPage<UserSnapshot>> response = userController.searchUsers(
+                null, null, null, null, null, 10, true);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedPage, response.getBody());
-        verify(userService).searchUsers(any(UserSearchDto.class), eq(pageable));
+        verify(userService).searchUsers(any(UserSearchDto.class), isNull(), eq(10), eq(true));
     }
 
     @Test
-    void updateUser_WithValidTokenAndOwnId_UpdatesUser() {
+    void updateUser_WithOwnId_UpdatesUser() {
         // Arrange
-        when(jwtUtil.extractUserId(VALID_TOKEN)).thenReturn(USER_ID);
-        when(userService.updateUserData(eq(USER_ID), any(UserUpdateDto.class))).thenReturn(testUser);
+        UserSnapshot snapshot = UserSnapshot.from(testUser);
+        when(userService.updateUserData(eq(USER_ID), any(UserUpdateDto.class))).thenReturn(snapshot);
 
         // Act
-        ResponseEntity<User> response = userController.updateUser(USER_ID, updateDto, VALID_TOKEN);
+        ResponseEntity<UserSnapshot> response = userController.updateUser(USER_ID, updateDto, OWN_PRINCIPAL);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(testUser, response.getBody());
-        verify(jwtUtil).extractUserId(VALID_TOKEN);
+        assertEquals(snapshot, response.getBody());
         verify(userService).updateUserData(eq(USER_ID), any(UserUpdateDto.class));
     }
 
     @Test
-    void updateUser_WithInvalidToken_ThrowsAccessDeniedException() {
-        // Arrange
-        when(jwtUtil.extractUserId(INVALID_TOKEN)).thenReturn(OTHER_USER_ID);
-
+    void updateUser_ForAnotherUser_ThrowsAccessDeniedException() {
         // Act & Assert
         assertThrows(AccessDeniedException.class, () -> {
-            userController.updateUser(USER_ID, updateDto, INVALID_TOKEN);
+            userController.updateUser(USER_ID, updateDto, OTHER_PRINCIPAL);
         });
 
-        verify(jwtUtil).extractUserId(INVALID_TOKEN);
         verifyNoInteractions(userService);
     }
 
@@ -205,7 +188,6 @@ class UserControllerTest {
     void searchUsers_WithDateOfBirthFilter_ReturnsUsersBornAfterGivenDate() {
         // Arrange
         String dateOfBirth = "01.01.1990";
-        Pageable pageable = PageRequest.of(0, 10);
 
         User user1 = new User(); // Должен быть найден (родился позже)
         user1.setId(1L);
@@ -218,16 +200,18 @@ class UserControllerTest {
         user2.setDateOfBirth("31.12.1989"); // Дата раньше, чем 01.01.1990
 
         // Ожидаемый результат — только user1
-        Page<User> expectedPage = new PageImpl<>(List.of(user1));
+        CursorPage<UserSnapshot> expectedPage = new CursorPage<>(List.of(UserSnapshot.from(user1)), null, false, null);
 
         when(userService.searchUsers(
                 any(UserSearchDto.class),
-                eq(pageable)
+                isNull(),
+                eq(10),
+                eq(false)
         )).thenReturn(expectedPage);
 
         // Act
-        ResponseEntity<Page<User>> response = userController.searchUsers(
-                null, dateOfBirth, null, null, 0, 10);
+        ResponseEntity<CursorPage<UserSnapshot>> response = userController.searchUsers(
+                null, dateOfBirth, null, null, null, 10, false);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -235,4 +219,13 @@ class UserControllerTest {
         assertEquals(1, response.getBody().getContent().size());
         assertEquals("02.01.1990", response.getBody().getContent().get(0).getDateOfBirth());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUser_TokenWithoutUserId_ThrowsAccessDeniedException() {
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> userController.getUser(USER_ID, new JwtPrincipal(null, "Test User")));
+
+        verifyNoInteractions(userService);
+    }
+}
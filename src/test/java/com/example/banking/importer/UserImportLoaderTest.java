@@ -0,0 +1,109 @@
+package com.example.banking.importer;
+
+import com.example.banking.model.User;
+import com.example.banking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// COPY и перенос из staging-таблиц на настоящем PostgreSQL; без Docker пропускается
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "banking.interest.period-ms=3600000",
+        "banking.users.birth-date-backfill.enabled=false",
+        "banking.import.chunk-size=2"
+})
+class UserImportLoaderTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @Container
+    static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.redis.host", redis::getHost);
+        registry.add("spring.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seedExistingUser() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM email_data");
+            jdbcTemplate.update("DELETE FROM phone_data");
+            jdbcTemplate.update("DELETE FROM account");
+            jdbcTemplate.update("DELETE FROM users");
+            Long userId = jdbcTemplate.queryForObject(
+                    "INSERT INTO users (id, name, date_of_birth, password) " +
+                            "VALUES (nextval('users_seq'), 'existing', '01.01.1990', 'password') RETURNING id",
+                    Long.class);
+            jdbcTemplate.update("INSERT INTO email_data (id, user_id, email) " +
+                    "VALUES (nextval('email_data_seq'), ?, 'taken@example.com')", userId);
+        });
+    }
+
+    @Test
+    void importUsers_CsvFile_MergedIntoAllTables() throws Exception {
+        // Arrange
+        String csv = "name,date_of_birth,password,emails,phones,initial_deposit\n" +
+                "alice,01.02.1990,password1,alice@example.com;alice2@example.com,79000000001,100.50\n" +
+                "bob,03.04.1985,password2,taken@example.com,79000000002,10\n" +
+                "\"carol, jr\",05.06.2000,password3,carol@example.com,79000000003,0\n";
+
+        // Act
+        UserImportReport report = userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportFormat.CSV);
+
+        // Assert
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getRejected());
+        assertEquals(3, report.getRejections().get(0).getLine());
+        Long aliceId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE name = 'alice'", Long.class);
+        User alice = userRepository.findWithContactsById(aliceId).orElseThrow();
+        assertEquals(2, alice.getEmails().size());
+        assertEquals(new BigDecimal("100.50"), alice.getAccount().getBalance());
+        assertNotNull(alice.getBirthDate());
+        assertTrue(passwordEncoder.matches("password1", alice.getPassword()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE name = 'carol, jr'", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM phone_data WHERE phone = '79000000002'", Integer.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.banking.importer;
+
+import com.example.banking.exception.InvalidImportFileException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserImportReaderTest {
+
+    @Test
+    void csv_QuotedFieldsAndReorderedColumns_ParsedWithLineNumbers() throws IOException {
+        // Arrange
+        String csv = "password,name,date_of_birth,emails,phones,initial_deposit\r\n" +
+                "secret123,\"Doe, \"\"John\"\"\",01.02.1990,a@example.com; b@example.com,79000000001,100.50\r\n" +
+                "\r\n" +
+                "secret456,\"Multi\nline\",03.04.1985,c@example.com,79000000002,0\n";
+
+        // Act
+        try (UserImportReader reader = open(csv, UserImportFormat.CSV)) {
+            UserImportRecord first = reader.next();
+            UserImportRecord second = reader.next();
+
+            // Assert
+            assertEquals(2, first.getLineNumber());
+            assertEquals("Doe, \"John\"", first.getName());
+            assertEquals("secret123", first.getPassword());
+            assertEquals(List.of("a@example.com", "b@example.com"), first.getEmails());
+            assertEquals("100.50", first.getInitialDeposit());
+            assertEquals(4, second.getLineNumber());
+            assertEquals("Multi\nline", second.getName());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void csv_MissingColumn_RejectsFile() {
+        // Act & Assert
+        assertThrows(InvalidImportFileException.class,
+                () -> open("name,date_of_birth,password\n", UserImportFormat.CSV));
+    }
+
+    @Test
+    void csv_ShortRow_ReturnedAsMalformedRecord() throws IOException {
+        // Arrange
+        String csv = "name,date_of_birth,password,emails,phones,initial_deposit\nonly,two\n";
+
+        // Act
+        try (UserImportReader reader = open(csv, UserImportFormat.CSV)) {
+            UserImportRecord record = reader.next();
+
+            // Assert
+            assertNotNull(record.getError());
+            assertEquals(2, record.getLineNumber());
+        }
+    }
+
+    @Test
+    void ndjson_InvalidLine_DoesNotStopReading() throws IOException {
+        // Arrange
+        String ndjson = "{\"name\":\"alice\",\"dateOfBirth\":\"01.01.1990\",\"password\":\"secret123\"," +
+                "\"emails\":[\"a@example.com\"],\"phones\":[\"79000000001\"],\"initialDeposit\":10.00}\n" +
+                "{broken\n" +
+                "{\"name\":\"bob\"}\n";
+
+        // Act
+        try (UserImportReader reader = open(ndjson, UserImportFormat.NDJSON)) {
+            UserImportRecord alice = reader.next();
+            UserImportRecord broken = reader.next();
+            UserImportRecord bob = reader.next();
+
+            // Assert
+            assertEquals(List.of("a@example.com"), alice.getEmails());
+            assertEquals("10.0", alice.getInitialDeposit());
+            assertNotNull(broken.getError());
+            assertEquals(2, broken.getLineNumber());
+            assertEquals("bob", bob.getName());
+            assertNull(reader.next());
+        }
+    }
+
+    private static UserImportReader open(String content, UserImportFormat format) throws IOException {
+        return UserImportReader.open(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.banking.importer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    private static final String HEADER = "name,date_of_birth,password,emails,phones,initial_deposit\n";
+
+    @Mock
+    private UserImportLoader loader;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(loader, passwordEncoder, 2, 2, 2);
+        lenient().when(passwordEncoder.encode(anyString())).thenAnswer(inv -> "hash:" + inv.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importUsers_ValidRows_LoadedInChunksInReadOrder() throws Exception {
+        // Arrange
+        when(loader.load(anyList())).thenReturn(List.of());
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 5; i++) {
+            csv.append(String.format("user%d,01.01.1990,password%d,u%d@example.com,790000000%02d,10.5%n", i, i, i, i));
+        }
+
+        // Act
+        UserImportReport report = importCsv(csv.toString());
+
+        // Assert
+        ArgumentCaptor<List<PreparedUser>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(loader, times(3)).load(chunks.capture());
+        List<Long> lines = new ArrayList<>();
+        chunks.getAllValues().forEach(chunk -> chunk.forEach(user -> lines.add(user.getLineNumber())));
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), lines);
+        PreparedUser first = chunks.getAllValues().get(0).get(0);
+        assertEquals("hash:password0", first.getPasswordHash());
+        assertEquals(new BigDecimal("10.50"), first.getInitialDeposit());
+        assertEquals(5, report.getReceived());
+        assertEquals(5, report.getImported());
+        assertEquals(0, report.getRejected());
+    }
+
+    @Test
+    void importUsers_InvalidAndDuplicateRows_RejectedWithReasons() throws Exception {
+        // Arrange
+        when(loader.load(anyList())).thenReturn(List.of()).thenReturn(List.of(5L));
+        String csv = HEADER +
+                "bob,01.01.1990,password2,b@example.com,79000000002,10\n" +
+                "carol,01.01.1990,password3,b@example.com,79000000003,10\n" +
+                "alice,31.02.1990,password1,a@example.com,79000000001,10\n" +
+                "dave,01.01.1990,password4,d@example.com,79000000004,10\n";
+
+        // Act
+        UserImportReport report = importCsv(csv);
+
+        // Assert
+        assertEquals(4, report.getReceived());
+        assertEquals(1, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertTrue(report.getRejections().stream().anyMatch(r -> r.getLine() == 3 && r.getReason().contains("duplicated")));
+        assertTrue(report.getRejections().stream().anyMatch(r -> r.getLine() == 4 && r.getReason().contains("Date of birth")));
+        assertTrue(report.getRejections().stream().anyMatch(r -> r.getLine() == 5 && r.getReason().contains("already exists")));
+        verify(passwordEncoder, never()).encode("password1");
+    }
+
+    @Test
+    void importUsers_ChunkLoadFails_CountedAsFailedAndImportContinues() throws Exception {
+        // Arrange
+        when(loader.load(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenReturn(List.of());
+        String csv = HEADER +
+                "alice,01.01.1990,password1,a@example.com,79000000001,10\n" +
+                "bob,01.01.1990,password2,b@example.com,79000000002,10\n" +
+                "carol,01.01.1990,password3,c@example.com,79000000003,10\n";
+
+        // Act
+        UserImportReport report = importCsv(csv);
+
+        // Assert
+        assertEquals(2, report.getFailed());
+        assertEquals(1, report.getImported());
+        assertEquals(0, report.getRejected());
+    }
+
+    @Test
+    void validate_DepositWithTooManyDecimals_Rejected() {
+        // Arrange
+        UserImportRecord record = UserImportRecord.of(2, "alice", "01.01.1990", "password1",
+                List.of("a@example.com"), List.of("79000000001"), "10.001");
+
+        // Act & Assert
+        assertNotNull(UserImportService.validate(record));
+    }
+
+    private UserImportReport importCsv(String csv) throws Exception {
+        return userImportService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UserImportFormat.CSV);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.banking.ledger;
+
+import com.example.banking.exception.AccountNotFoundException;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.LedgerUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    private static final String BALANCE_QUERY = "SELECT balance FROM account WHERE user_id = ?";
+    private static final String DELTA_UPDATE = "UPDATE account SET balance = balance + ? WHERE user_id = ?";
+
+    @TempDir
+    Path journalDir;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        lenient().when(jdbcTemplate.queryForList(BALANCE_QUERY, BigDecimal.class, 1L))
+                .thenReturn(List.of(new BigDecimal("100.00")));
+        lenient().when(jdbcTemplate.queryForList(BALANCE_QUERY, BigDecimal.class, 2L))
+                .thenReturn(List.of(new BigDecimal("5.00")));
+        lenient().when(jdbcTemplate.queryForList(BALANCE_QUERY, BigDecimal.class, 3L))
+                .thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    void transfer_ThenFlush_WritesNetDeltasInOneBatch() throws Exception {
+        // Arrange
+        LedgerService ledger = newLedger();
+
+        // Act
+        ledger.transfer(1L, 2L, new BigDecimal("30.00"));
+        ledger.transfer(2L, 1L, new BigDecimal("10.50"));
+        ledger.flush();
+
+        // Assert
+        List<Object[]> batch = captureDeltaBatch();
+        assertEquals(2, batch.size());
+        assertArrayEquals(new Object[]{new BigDecimal("-19.50"), 1L}, batch.get(0));
+        assertArrayEquals(new Object[]{new BigDecimal("19.50"), 2L}, batch.get(1));
+        assertEquals(2, captureTransferRows().size());
+        ledger.shutdown();
+    }
+
+    @Test
+    void transfer_InsufficientFunds_LeavesBalancesUntouched() throws Exception {
+        // Arrange
+        LedgerService ledger = newLedger();
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> ledger.transfer(2L, 1L, new BigDecimal("5.01")));
+        ledger.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        ledger.shutdown();
+    }
+
+    @Test
+    void transfer_UnknownRecipient_ThrowsAccountNotFound() throws Exception {
+        // Arrange
+        LedgerService ledger = newLedger();
+
+        // Act & Assert
+        assertThrows(AccountNotFoundException.class, () -> ledger.transfer(1L, 3L, new BigDecimal("1.00")));
+        ledger.shutdown();
+    }
+
+    @Test
+    void journalFailure_StopsTransfersAndWriteBehind() throws Exception {
+        // Arrange: перевод уже изменил остатки в памяти, затем журнал сломался
+        LedgerService ledger = newLedger();
+        ledger.transfer(1L, 2L, new BigDecimal("30.00"));
+        TransferJournal journal = (TransferJournal) ReflectionTestUtils.getField(ledger, "journal");
+        journal.markFailed(new IOException("fsync failed"));
+
+        // Act & Assert
+        assertThrows(LedgerUnavailableException.class, () -> ledger.transfer(1L, 2L, new BigDecimal("1.00")));
+        ledger.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        ledger.shutdown();
+    }
+
+    @Test
+    void recovery_ReplaysUnflushedJournalOnStartup() throws Exception {
+        // Arrange: перевод попал в журнал, но процесс упал до сброса в БД
+        LedgerService crashed = newLedger();
+        crashed.transfer(1L, 2L, new BigDecimal("42.00"));
+        when(jdbcTemplate.queryForList(startsWith("SELECT last_segment"), eq(Long.class), anyString()))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        LedgerService restarted = newLedger();
+
+        // Assert
+        List<Object[]> batch = captureDeltaBatch();
+        assertArrayEquals(new Object[]{new BigDecimal("-42.00"), 1L}, batch.get(0));
+        assertArrayEquals(new Object[]{new BigDecimal("42.00"), 2L}, batch.get(1));
+        assertEquals(1, captureTransferRows().size());
+        assertTrue(TransferJournal.listSegments(journalDir).stream().allMatch(segment -> segment > 0));
+        restarted.shutdown();
+    }
+
+    @Test
+    void recovery_EmptyJournalWithCheckpoint_ContinuesNumberingAndReplaysAfterCrash() throws Exception {
+        // Arrange: каталог журнала пуст (новый диск), а в БД уже есть контрольная точка 7
+        when(jdbcTemplate.queryForList(startsWith("SELECT last_segment"), eq(Long.class), anyString()))
+                .thenReturn(List.of(7L));
+        LedgerService crashed = newLedger();
+        crashed.transfer(1L, 2L, new BigDecimal("42.00"));
+        assertTrue(TransferJournal.listSegments(journalDir).stream().allMatch(segment -> segment > 7));
+
+        // Act: процесс упал до сброса в БД
+        LedgerService restarted = newLedger();
+
+        // Assert
+        List<Object[]> batch = captureDeltaBatch();
+        assertArrayEquals(new Object[]{new BigDecimal("-42.00"), 1L}, batch.get(0));
+        assertArrayEquals(new Object[]{new BigDecimal("42.00"), 2L}, batch.get(1));
+        assertEquals(1, captureTransferRows().size());
+        restarted.shutdown();
+    }
+
+    private LedgerService newLedger() throws Exception {
+        return new LedgerService(jdbcTemplate, transactionTemplate, journalDir.toString(), "test");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> captureDeltaBatch() {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(DELTA_UPDATE), captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> captureTransferRows() {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO transfer"), captor.capture());
+        return captor.getValue();
+    }
+}
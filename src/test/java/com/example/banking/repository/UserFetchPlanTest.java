@@ -0,0 +1,169 @@
+package com.example.banking.repository;
+
+import com.example.banking.dto.UserUpdateDto;
+import com.example.banking.model.User;
+import com.example.banking.service.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Число SQL-запросов по статистике Hibernate; без Docker пропускается
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "banking.interest.period-ms=3600000",
+        "banking.users.birth-date-backfill.enabled=false"
+})
+class UserFetchPlanTest {
+
+    private static final int USERS = 5;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @Container
+    static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.redis.host", redis::getHost);
+        registry.add("spring.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedUsers() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userIds.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM email_data");
+            jdbcTemplate.update("DELETE FROM phone_data");
+            jdbcTemplate.update("DELETE FROM account");
+            jdbcTemplate.update("DELETE FROM users");
+            for (int i = 0; i < USERS; i++) {
+                Long userId = jdbcTemplate.queryForObject(
+                        "INSERT INTO users (id, name, date_of_birth, password) VALUES (nextval('users_seq'), ?, '01.01.1990', 'password') RETURNING id",
+                        Long.class, "fetch-" + i);
+                jdbcTemplate.update("INSERT INTO account (id, user_id, balance, initial_deposit) " +
+                        "VALUES (nextval('account_seq'), ?, 10.00, 10.00)", userId);
+                jdbcTemplate.update("INSERT INTO email_data (id, user_id, email) VALUES (nextval('email_data_seq'), ?, ?)",
+                        userId, "fetch" + i + "@example.com");
+                jdbcTemplate.update("INSERT INTO phone_data (id, user_id, phone) VALUES (nextval('phone_data_seq'), ?, ?)",
+                        userId, String.format("7900000000%d", i));
+                userIds.add(userId);
+            }
+        });
+        statistics.clear();
+    }
+
+    // Телефоны не входят в граф: fetch join обеих коллекций размножил бы строки emails x phones
+    @Test
+    void withContactsGraph_LoadsEmailsAndAccountWithUserAndPhonesInOneMoreStatement() {
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findWithContactsById(userIds.get(0)).orElseThrow();
+            assertNotNull(user.getAccount().getBalance());
+            assertEquals(1, user.getEmails().size());
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertEquals(1, user.getPhones().size());
+        });
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void contactsOfManyUsers_AreBatchFetched() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> users = userRepository.findAllById(userIds);
+            long beforeContacts = statistics.getPrepareStatementCount();
+            users.forEach(user -> user.getEmails().size());
+            users.forEach(user -> user.getPhones().size());
+            // По одному запросу на коллекцию для всех пользователей вместо 2 * USERS
+            assertEquals(2, statistics.getPrepareStatementCount() - beforeContacts);
+        });
+    }
+
+    @Test
+    void updateUserData_ManyContacts_ConstantNumberOfRoundTrips() {
+        UserUpdateDto updateDto = new UserUpdateDto();
+        Set<UserUpdateDto.EmailData> emails = new HashSet<>();
+        Set<UserUpdateDto.PhoneData> phones = new HashSet<>();
+        for (int i = 0; i < 30; i++) {
+            UserUpdateDto.EmailData email = new UserUpdateDto.EmailData();
+            email.setEmail("bulk" + i + "@example.com");
+            emails.add(email);
+            UserUpdateDto.PhoneData phone = new UserUpdateDto.PhoneData();
+            phone.setPhone(String.format("791000000%02d", i));
+            phones.add(phone);
+        }
+        updateDto.setEmails(emails);
+        updateDto.setPhones(phones);
+
+        userService.updateUserData(userIds.get(0), updateDto);
+
+        // 60 новых контактов: по одной IN-проверке, одному nextval и одной пачке вставки на тип,
+        // плюс граф с контактами и удаление двух старых — вместо запроса на каждый контакт
+        assertEquals(60, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() <= 9,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateUserData_UsesBoundedNumberOfStatements() {
+        UserUpdateDto updateDto = new UserUpdateDto();
+        updateDto.setName("renamed");
+        UserUpdateDto.EmailData email = new UserUpdateDto.EmailData();
+        email.setEmail("new@example.com");
+        updateDto.setEmails(Set.of(email));
+
+        userService.updateUserData(userIds.get(0), updateDto);
+
+        // Граф с контактами, IN-проверка email, блок id из последовательности, вставка, удаление, обновление имени
+        assertTrue(statistics.getPrepareStatementCount() <= 6,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.banking.repository;
+
+import com.example.banking.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchRepositoryImplTest {
+
+    @Test
+    void cursor_RoundTripsLastId() {
+        // Act
+        String cursor = UserSearchRepositoryImpl.encodeCursor(123456789L);
+
+        // Assert
+        assertFalse(cursor.contains("123456789"));
+        assertEquals(123456789L, UserSearchRepositoryImpl.decodeCursor(cursor));
+    }
+
+    @Test
+    void decodeCursor_Garbage_ThrowsInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> UserSearchRepositoryImpl.decodeCursor("not a cursor!"));
+        assertThrows(InvalidCursorException.class, () -> UserSearchRepositoryImpl.decodeCursor("MTIz"));
+    }
+
+    @Test
+    void escapeLike_TreatsWildcardsLiterally() {
+        assertEquals("50\\%\\_off\\\\", UserSearchRepositoryImpl.escapeLike("50%_off\\"));
+    }
+}
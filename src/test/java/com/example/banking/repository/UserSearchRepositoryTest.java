@@ -0,0 +1,170 @@
+package com.example.banking.repository;
+
+import com.example.banking.dto.CursorPage;
+import com.example.banking.dto.UserExportRow;
+import com.example.banking.dto.UserSearchDto;
+import com.example.banking.dto.UserSnapshot;
+import com.example.banking.sql.SqlRequestStats;
+import com.example.banking.sql.SqlTracingListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Поиск и сборка снимков на настоящем PostgreSQL; без Docker пропускается
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "banking.interest.period-ms=3600000"
+})
+class UserSearchRepositoryTest {
+
+    private static final int USERS = 25;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @Container
+    static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.redis.host", redis::getHost);
+        registry.add("spring.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserExportRepository userExportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seedUsers() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM email_data");
+            jdbcTemplate.update("DELETE FROM phone_data");
+            jdbcTemplate.update("DELETE FROM users");
+            for (int i = 0; i < USERS; i++) {
+                String dateOfBirth = String.format("01.01.%d", 1980 + i);
+                Long userId = jdbcTemplate.queryForObject(
+                        "INSERT INTO users (id, name, date_of_birth, birth_date, password) " +
+                                "VALUES (nextval('users_seq'), ?, ?, to_date(?, 'DD.MM.YYYY'), 'password') RETURNING id",
+                        Long.class, "user_" + i, dateOfBirth, dateOfBirth);
+                jdbcTemplate.update("INSERT INTO email_data (id, user_id, email) " +
+                                "VALUES (nextval('email_data_seq'), ?, ?), (nextval('email_data_seq'), ?, ?)",
+                        userId, "a" + i + "@example.com", userId, "b" + i + "@example.com");
+                jdbcTemplate.update("INSERT INTO phone_data (id, user_id, phone) VALUES (nextval('phone_data_seq'), ?, ?)",
+                        userId, String.format("790000000%02d", i));
+            }
+        });
+    }
+
+    @Test
+    void search_WalksAllPagesWithCursor_WithContactsAggregated() {
+        List<UserSnapshot> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            String pageCursor = cursor;
+            CursorPage<UserSnapshot> page = transactionTemplate.execute(status -> userRepository.search(
+                    new UserSearchDto("user_", null, null, null), pageCursor, 10, pageCursor == null));
+            all.addAll(page.getContent());
+            if (pageCursor == null) {
+                assertEquals(USERS, page.getTotalElements());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(USERS, all.size());
+        assertEquals(2, all.get(0).getEmails().size());
+        assertEquals(1, all.get(0).getPhones().size());
+    }
+
+    @Test
+    void search_PageWithContacts_RunsOneStatementRegardlessOfPageSize() {
+        SqlRequestStats small = SqlTracingListener.track(() -> transactionTemplate.execute(status ->
+                userRepository.search(new UserSearchDto(null, null, null, null), null, 2, false)));
+        SqlRequestStats large = SqlTracingListener.track(() -> transactionTemplate.execute(status ->
+                userRepository.search(new UserSearchDto(null, null, null, null), null, USERS, false)));
+
+        assertEquals(1, small.getStatements());
+        assertEquals(1, large.getStatements());
+    }
+
+    @Test
+    void search_ByEmailAndBornAfter_UsesExactMatchAndDateRange() {
+        CursorPage<UserSnapshot> byEmail = transactionTemplate.execute(status -> userRepository.search(
+                new UserSearchDto(null, null, "b3@example.com", null), null, 10, false));
+        CursorPage<UserSnapshot> bornAfter = transactionTemplate.execute(status -> userRepository.search(
+                new UserSearchDto(null, "01.01.2000", null, null), null, 10, true));
+
+        assertEquals(1, byEmail.getContent().size());
+        assertEquals("user_3", byEmail.getContent().get(0).getName());
+        // 2001..2004 — строковое сравнение "DD.MM.YYYY" дало бы здесь неверный результат
+        assertEquals(4L, bornAfter.getTotalElements());
+    }
+
+    @Test
+    void search_BornAfterWithImpossibleDatesNotBackfilled_DoesNotFail() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO users (id, name, date_of_birth, password) " +
+                    "VALUES (nextval('users_seq'), 'broken_1', '31.02.2000', 'password')");
+            jdbcTemplate.update("INSERT INTO users (id, name, date_of_birth, password) " +
+                    "VALUES (nextval('users_seq'), 'broken_2', '99.99.9999', 'password')");
+            jdbcTemplate.update("INSERT INTO users (id, name, date_of_birth, password) " +
+                    "VALUES (nextval('users_seq'), 'pending', '01.06.2003', 'password')");
+        });
+
+        CursorPage<UserSnapshot> bornAfter = transactionTemplate.execute(status -> userRepository.search(
+                new UserSearchDto(null, "01.01.2000", null, null), null, USERS, false));
+
+        List<String> names = new ArrayList<>();
+        bornAfter.getContent().forEach(user -> names.add(user.getName()));
+        assertTrue(names.contains("pending"));
+        assertFalse(names.contains("broken_2"));
+    }
+
+    @Test
+    void export_ResumesAfterCursorOfLastReceivedRow() {
+        List<UserExportRow> firstRun = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> userExportRepository.forEachAfter(0L, firstRun::add));
+        String resumeFrom = firstRun.get(9).getCursor();
+
+        List<UserExportRow> resumed = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> userExportRepository.forEachAfter(
+                UserExportRepository.startAfter(resumeFrom), resumed::add));
+
+        assertEquals(USERS, firstRun.size());
+        assertEquals(List.of("a0@example.com", "b0@example.com"), firstRun.get(0).getEmails());
+        assertEquals(USERS - 10, resumed.size());
+        assertEquals(firstRun.get(10).getId(), resumed.get(0).getId());
+    }
+}
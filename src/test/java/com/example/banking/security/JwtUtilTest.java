@@ -0,0 +1,93 @@
+package com.example.banking.security;
+
+import com.example.banking.config.JwtConfig;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hs512-signatures-0123456789";
+
+    private JwtConfig jwtConfig;
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        jwtConfig.setExpiration(60_000);
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(jwtConfig, 100, meterRegistry);
+    }
+
+    @Test
+    void authenticate_TokenFromLogin_CarriesUserId() {
+        // Arrange
+        String token = jwtUtil.generateToken(new BankingUserDetails(42L, "alice", "hash",
+                AuthorityUtils.createAuthorityList("USER")));
+
+        // Act
+        JwtPrincipal principal = jwtUtil.authenticate(token);
+
+        // Assert
+        assertEquals(42L, principal.getUserId());
+        assertEquals("alice", principal.getName());
+        assertEquals(42L, jwtUtil.extractUserId("Bearer " + token));
+    }
+
+    @Test
+    void authenticate_SameTokenTwice_ReturnsCachedPrincipal() {
+        // Arrange
+        String token = jwtUtil.generateToken(new BankingUserDetails(1L, "alice", "hash",
+                AuthorityUtils.createAuthorityList("USER")));
+
+        // Act
+        JwtPrincipal first = jwtUtil.authenticate(token);
+        JwtPrincipal second = jwtUtil.authenticate(token);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, meterRegistry.get("banking.jwt.verify").tag("result", "verified").timer().count());
+        assertEquals(1, meterRegistry.get("banking.jwt.verify").tag("result", "cached").timer().count());
+    }
+
+    @Test
+    void authenticate_TamperedSignature_Rejected() {
+        // Arrange
+        String token = jwtUtil.generateToken(new BankingUserDetails(1L, "alice", "hash",
+                AuthorityUtils.createAuthorityList("USER")));
+        jwtUtil.authenticate(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> jwtUtil.authenticate(tampered));
+        assertEquals(1, meterRegistry.get("banking.jwt.verify").tag("result", "invalid").timer().count());
+    }
+
+    @Test
+    void authenticate_ExpiredToken_Rejected() {
+        // Arrange
+        String token = Jwts.builder()
+                .setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.authenticate(token));
+        assertThrows(SecurityException.class, () -> jwtUtil.extractUserId("Bearer " + token));
+    }
+}
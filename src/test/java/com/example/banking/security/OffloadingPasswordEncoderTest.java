@@ -0,0 +1,86 @@
+package com.example.banking.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class OffloadingPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService clients = Executors.newCachedThreadPool();
+    private OffloadingPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void matches_RunsOnHashingPoolAndRecordsLatency() {
+        // Arrange
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches("secret", "hash")).thenAnswer(inv ->
+                Thread.currentThread().getName().startsWith("password-hash-"));
+        encoder = new OffloadingPasswordEncoder(delegate, 1, 1, registry);
+
+        // Act
+        boolean matched = encoder.matches("secret", "hash");
+
+        // Assert
+        assertTrue(matched);
+        assertEquals(1, registry.get("banking.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void matches_QueueFull_ShedsImmediately() throws Exception {
+        // Arrange: один поток занят, одна проверка ждет в очереди
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(any(), anyString())).thenAnswer(inv -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        });
+        encoder = new OffloadingPasswordEncoder(delegate, 1, 1, registry);
+        Future<Boolean> running = clients.submit(() -> encoder.matches("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Boolean> queued = clients.submit(() -> encoder.matches("b", "hash"));
+        while (registry.get("banking.password.queue.depth").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // Act & Assert
+        assertThrows(PasswordHashingOverloadedException.class, () -> encoder.matches("c", "hash"));
+        assertEquals(1.0, registry.get("banking.password.shed").counter().count());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void encode_RunsInCallingThread() {
+        // Arrange
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        String caller = Thread.currentThread().getName();
+        when(delegate.encode("secret")).thenAnswer(inv -> Thread.currentThread().getName());
+        encoder = new OffloadingPasswordEncoder(delegate, 1, 1, registry);
+
+        // Act & Assert
+        assertEquals(caller, encoder.encode("secret"));
+    }
+}
@@ -1,16 +1,22 @@
 package com.example.banking.service;
 
+import com.example.banking.exception.AccountNotFoundException;
+import com.example.banking.exception.ConcurrentTransactionException;
 import com.example.banking.exception.InsufficientFundsException;
-import com.example.banking.model.Account;
+import com.example.banking.model.Transfer;
 import com.example.banking.repository.AccountRepository;
+import com.example.banking.repository.TransferRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.Duration;
@@ -27,12 +33,20 @@ public class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private TransferRepository transferRepository;
+
     @Mock
     private RedisTemplate<String, Boolean> redisTemplate;
 
     @Mock
     private ValueOperations<String, Boolean> valueOperations;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private TransferMetrics transferMetrics = new TransferMetrics(meterRegistry, TransferMode.REDIS_LOCK);
+
     @InjectMocks
     private AccountService accountService;
 
@@ -55,6 +69,7 @@ public class AccountServiceTest {
         verify(accountRepository).withdrawFromAccount(1L, new BigDecimal("100"));
         verify(accountRepository).depositToAccount(2L, new BigDecimal("100"));
         verify(redisTemplate).delete("transfer:1:2");
+        verify(transferRepository).save(any(Transfer.class));
     }
 
     @Test
@@ -74,19 +89,78 @@ public class AccountServiceTest {
     }
 
     @Test
-    void applyInterest_ShouldCapAt207Percent() {
+    void transferMoney_LockHeldByAnotherTransfer_RecordsConflict() {
         // Arrange
-        Account account = new Account();
-        account.setBalance(new BigDecimal("200"));
-        account.setInitialDeposit(new BigDecimal("100"));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), eq(true), any(Duration.class)))
+                .thenReturn(false);
 
-        when(accountRepository.findAll()).thenReturn(List.of(account));
+        // Act & Assert
+        assertThrows(ConcurrentTransactionException.class, () ->
+                accountService.transferMoney(1L, 2L, new BigDecimal("100")));
+
+        assertEquals(1, meterRegistry.get("banking.transfer").tag("outcome", "conflict").timer().count());
+        assertEquals(1, meterRegistry.get("banking.transfer.lock").tag("result", "contended").timer().count());
+        assertEquals(0, meterRegistry.get("banking.transfer.write").timer().count());
+        verify(accountRepository, never()).withdrawFromAccount(anyLong(), any());
+    }
+
+    @Test
+    void transferMoney_RowLockMode_DebitsAndCreditsInOneStatement() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(accountService, "transferMode", TransferMode.ROW_LOCK);
+        when(accountRepository.lockAccountsForTransfer(1L, 2L))
+                .thenReturn(List.of(lockedAccount(2L, "10"), lockedAccount(1L, "500")));
 
         // Act
-        accountService.applyInterest();
+        accountService.transferMoney(1L, 2L, new BigDecimal("100"));
 
         // Assert
-        assertEquals(new BigDecimal("207.00"), account.getBalance());
-        verify(accountRepository).save(account);
+        verify(accountRepository).applyTransfer(1L, 2L, new BigDecimal("100"));
+        verify(transferRepository).save(any(Transfer.class));
+        verify(accountRepository, never()).withdrawFromAccount(anyLong(), any());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void transferMoney_RowLockMode_InsufficientFunds() {
+        // Arrange
+        ReflectionTestUtils.setField(accountService, "transferMode", TransferMode.ROW_LOCK);
+        when(accountRepository.lockAccountsForTransfer(1L, 2L))
+                .thenReturn(List.of(lockedAccount(1L, "50"), lockedAccount(2L, "10")));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () ->
+                accountService.transferMoney(1L, 2L, new BigDecimal("100")));
+
+        verify(accountRepository, never()).applyTransfer(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void transferMoney_RowLockMode_RecipientNotFound() {
+        // Arrange
+        ReflectionTestUtils.setField(accountService, "transferMode", TransferMode.ROW_LOCK);
+        when(accountRepository.lockAccountsForTransfer(1L, 2L))
+                .thenReturn(List.of(lockedAccount(1L, "500")));
+
+        // Act & Assert
+        assertThrows(AccountNotFoundException.class, () ->
+                accountService.transferMoney(1L, 2L, new BigDecimal("100")));
+
+        verify(accountRepository, never()).applyTransfer(anyLong(), anyLong(), any());
+    }
+
+    private static AccountRepository.LockedAccount lockedAccount(Long userId, String balance) {
+        return new AccountRepository.LockedAccount() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public BigDecimal getBalance() {
+                return new BigDecimal(balance);
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.BatchTransferResponseDto;
+import com.example.banking.dto.TransferRequestDto;
+import com.example.banking.exception.BatchTooLargeException;
+import com.example.banking.exception.BatchTransfersUnsupportedException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchTransferServiceTest {
+
+    @Mock
+    private TransferSettlementService settlementService;
+
+    @InjectMocks
+    private BatchTransferService batchTransferService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transferBatch_BestEffort_ReturnsPerItemOutcomes() {
+        // Arrange
+        when(settlementService.settle(anyList(), eq(false))).thenReturn(
+                List.of(TransferOutcome.COMPLETED, TransferOutcome.INSUFFICIENT_FUNDS, TransferOutcome.COMPLETED));
+
+        // Act
+        BatchTransferResponseDto result = batchTransferService.transferBatch(1L,
+                List.of(transfer(2L, "10"), transfer(3L, "1000"), transfer(4L, "5")), BatchTransferMode.BEST_EFFORT);
+
+        // Assert
+        ArgumentCaptor<List<TransferInstruction>> instructions = ArgumentCaptor.forClass(List.class);
+        verify(settlementService).settle(instructions.capture(), eq(false));
+        assertEquals(new TransferInstruction(1L, 3L, new BigDecimal("1000")), instructions.getValue().get(1));
+        assertTrue(result.isCommitted());
+        assertEquals(2, result.getCompletedCount());
+        assertEquals(TransferOutcome.INSUFFICIENT_FUNDS, result.getResults().get(1).getOutcome());
+        assertEquals(3L, result.getResults().get(1).getToUserId());
+    }
+
+    @Test
+    void transferBatch_AllOrNothingWithFailure_IsNotCommitted() {
+        // Arrange
+        when(settlementService.settle(anyList(), eq(true))).thenReturn(
+                List.of(TransferOutcome.ROLLED_BACK, TransferOutcome.ACCOUNT_NOT_FOUND));
+
+        // Act
+        BatchTransferResponseDto result = batchTransferService.transferBatch(1L,
+                List.of(transfer(2L, "10"), transfer(99L, "10")), BatchTransferMode.ALL_OR_NOTHING);
+
+        // Assert
+        assertFalse(result.isCommitted());
+        assertEquals(0, result.getCompletedCount());
+    }
+
+    @Test
+    void transferBatch_TooLarge_ThrowsWithoutSettling() {
+        // Arrange
+        ReflectionTestUtils.setField(batchTransferService, "maxBatchSize", 1);
+
+        // Act & Assert
+        assertThrows(BatchTooLargeException.class, () -> batchTransferService.transferBatch(1L,
+                List.of(transfer(2L, "10"), transfer(3L, "10")), BatchTransferMode.BEST_EFFORT));
+        verifyNoInteractions(settlementService);
+    }
+
+    @Test
+    void transferBatch_LedgerMode_ThrowsWithoutSettling() {
+        // Arrange
+        ReflectionTestUtils.setField(batchTransferService, "transferMode", TransferMode.LEDGER);
+
+        // Act & Assert
+        assertThrows(BatchTransfersUnsupportedException.class, () -> batchTransferService.transferBatch(1L,
+                List.of(transfer(2L, "10")), BatchTransferMode.BEST_EFFORT));
+        verifyNoInteractions(settlementService);
+    }
+
+    private static TransferRequestDto transfer(Long toUserId, String amount) {
+        TransferRequestDto dto = new TransferRequestDto();
+        dto.setToUserId(toUserId);
+        dto.setAmount(new BigDecimal(amount));
+        return dto;
+    }
+}
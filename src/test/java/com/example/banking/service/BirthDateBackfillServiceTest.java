@@ -0,0 +1,114 @@
+package com.example.banking.service;
+
+import com.example.banking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BirthDateBackfillServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BirthDateBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        backfillService = new BirthDateBackfillService(userRepository, jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(backfillService, "chunkSize", 2);
+        ReflectionTestUtils.setField(backfillService, "pauseMs", 0L);
+    }
+
+    @Test
+    void backfill_WalksIdSpaceInChunks_EachInOwnTransaction() throws Exception {
+        // Arrange
+        when(userRepository.findBirthDateChunkUpperBound(0L, 2)).thenReturn(5L);
+        when(userRepository.findBirthDateChunkUpperBound(5L, 2)).thenReturn(9L);
+        when(userRepository.findBirthDateChunkUpperBound(9L, 2)).thenReturn(null);
+        stubChunk(0L, 5L, "01.01.1990", "02.02.1991");
+        stubChunk(5L, 9L, "03.03.1992");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> ones(inv.<List<?>>getArgument(1).size()));
+
+        // Act
+        long updated = backfillService.backfill();
+
+        // Assert
+        assertEquals(3, updated);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfill_ImpossibleDates_LeavesThemNull() throws Exception {
+        // Arrange
+        when(userRepository.findBirthDateChunkUpperBound(0L, 2)).thenReturn(3L);
+        when(userRepository.findBirthDateChunkUpperBound(3L, 2)).thenReturn(null);
+        stubChunk(0L, 3L, "31.02.2000", "99.99.9999", "29.02.2000");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> ones(inv.<List<?>>getArgument(1).size()));
+
+        // Act
+        long updated = backfillService.backfill();
+
+        // Assert
+        assertEquals(1, updated);
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertArrayEquals(new Object[]{LocalDate.of(2000, 2, 29), 3L}, batch.getValue().get(0));
+    }
+
+    @Test
+    void backfill_NothingLeft_DoesNoUpdates() throws Exception {
+        // Arrange
+        when(userRepository.findBirthDateChunkUpperBound(0L, 2)).thenReturn(null);
+
+        // Act
+        long updated = backfillService.backfill();
+
+        // Assert
+        assertEquals(0, updated);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    // Строки пачки получают id afterId + 1, afterId + 2, ...
+    private void stubChunk(long afterId, long upToId, String... datesOfBirth) {
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (int i = 0; i < datesOfBirth.length; i++) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("date_of_birth")).thenReturn(datesOfBirth[i]);
+                lenient().when(rs.getLong("id")).thenReturn(afterId + i + 1);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(afterId), eq(upToId));
+    }
+
+    private static int[] ones(int size) {
+        int[] counts = new int[size];
+        Arrays.fill(counts, 1);
+        return counts;
+    }
+}
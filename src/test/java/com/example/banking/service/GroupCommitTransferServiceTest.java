@@ -0,0 +1,113 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.InsufficientFundsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitTransferServiceTest {
+
+    private static final int GROUP_SIZE = 3;
+
+    @Mock
+    private TransferSettlementService settlementService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GroupCommitTransferService groupCommitTransferService;
+
+    @BeforeEach
+    void setUp() {
+        // Большое время ожидания: группа закрывается только по размеру
+        groupCommitTransferService = new GroupCommitTransferService(settlementService,
+                new TransactionTemplate(transactionManager), GROUP_SIZE, 10_000, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        groupCommitTransferService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transfer_ConcurrentRequests_CommittedAsOneGroup() throws Exception {
+        // Arrange
+        when(settlementService.settle(anyList())).thenAnswer(inv ->
+                Collections.nCopies(((List<TransferInstruction>) inv.getArgument(0)).size(), TransferOutcome.COMPLETED));
+        ExecutorService clients = Executors.newFixedThreadPool(GROUP_SIZE);
+
+        // Act
+        List<Future<?>> results = new ArrayList<>();
+        for (long i = 1; i <= GROUP_SIZE; i++) {
+            long from = i;
+            results.add(clients.submit(() -> {
+                groupCommitTransferService.transfer(from, 100L, new BigDecimal("1.00"));
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        clients.shutdown();
+
+        // Assert
+        ArgumentCaptor<List<TransferInstruction>> group = ArgumentCaptor.forClass(List.class);
+        verify(settlementService).settle(group.capture());
+        assertEquals(GROUP_SIZE, group.getValue().size());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transfer_InsufficientFundsInGroup_FailsOnlyThatRequest() throws Exception {
+        // Arrange
+        when(settlementService.settle(anyList())).thenAnswer(inv -> {
+            List<TransferOutcome> outcomes = new ArrayList<>();
+            for (TransferInstruction instruction : (List<TransferInstruction>) inv.getArgument(0)) {
+                outcomes.add(instruction.getFromUserId() == 3L
+                        ? TransferOutcome.INSUFFICIENT_FUNDS : TransferOutcome.COMPLETED);
+            }
+            return outcomes;
+        });
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+
+        // Act
+        Future<?> first = clients.submit(() -> {
+            groupCommitTransferService.transfer(1L, 2L, new BigDecimal("1.00"));
+            return null;
+        });
+        Future<?> second = clients.submit(() -> {
+            groupCommitTransferService.transfer(3L, 2L, new BigDecimal("1.00"));
+            return null;
+        });
+        groupCommitTransferService.transfer(4L, 2L, new BigDecimal("1.00"));
+        clients.shutdown();
+
+        // Assert
+        first.get();
+        ExecutionException failure = assertThrows(ExecutionException.class, second::get);
+        assertInstanceOf(InsufficientFundsException.class, failure.getCause());
+        verify(settlementService).settle(anyList());
+    }
+}
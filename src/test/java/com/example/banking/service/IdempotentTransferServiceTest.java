@@ -0,0 +1,164 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.ConcurrentTransactionException;
+import com.example.banking.exception.IdempotencyKeyMismatchException;
+import com.example.banking.exception.InsufficientFundsException;
+import com.example.banking.exception.TransferOutcomeUnknownException;
+import com.example.banking.model.IdempotencyRecord;
+import com.example.banking.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentTransferServiceTest {
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotentTransferService idempotentTransferService;
+
+    @BeforeEach
+    void setUp() {
+        idempotentTransferService = new IdempotentTransferService(
+                accountService, idempotencyRecordRepository, 1000, 60_000, 86_400_000);
+    }
+
+    @Test
+    void transfer_RetryWithSameKey_ReplaysFromCacheWithoutSecondDebit() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.claim(1L, "key-1", "2:100")).thenReturn(1);
+
+        // Act
+        IdempotentTransferResult first = idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("100.00"));
+        IdempotentTransferResult retry = idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("100"));
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertFalse(first.isReplayed());
+        assertEquals(200, retry.getStatus());
+        assertTrue(retry.isReplayed());
+        verify(accountService, times(1)).transferMoney(1L, 2L, new BigDecimal("100.00"));
+        verify(idempotencyRecordRepository, times(1)).claim(anyLong(), anyString(), anyString());
+        verify(idempotencyRecordRepository).complete(1L, "key-1", 200, null, null);
+    }
+
+    @Test
+    void transfer_KeyCompletedOnAnotherNode_ReplaysPersistedResult() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.claim(1L, "key-1", "2:100")).thenReturn(0);
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+                .thenReturn(Optional.of(new IdempotencyRecord(1L, "key-1", "2:100", IdempotencyRecord.COMPLETED,
+                        400, "INSUFFICIENT_FUNDS", "Not enough balance", Instant.now())));
+
+        // Act
+        IdempotentTransferResult result = idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("100"));
+
+        // Assert
+        assertEquals(400, result.getStatus());
+        assertEquals("INSUFFICIENT_FUNDS", result.getCode());
+        assertTrue(result.isReplayed());
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void transfer_BusinessFailure_IsStoredAndReplayed() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.claim(1L, "key-1", "2:100")).thenReturn(1);
+        doThrow(new InsufficientFundsException("Not enough balance"))
+                .when(accountService).transferMoney(1L, 2L, new BigDecimal("100"));
+
+        // Act
+        IdempotentTransferResult first = idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("100"));
+        IdempotentTransferResult retry = idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("100"));
+
+        // Assert
+        assertEquals(400, first.getStatus());
+        assertEquals(first.getCode(), retry.getCode());
+        verify(idempotencyRecordRepository).complete(1L, "key-1", 400, "INSUFFICIENT_FUNDS", "Not enough balance");
+        verify(accountService, times(1)).transferMoney(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void transfer_SameKeyDifferentAmount_ThrowsMismatch() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.claim(1L, "key-1", "2:100")).thenReturn(1);
+        idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("100"));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("101")));
+        verify(accountService, times(1)).transferMoney(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void transfer_KeyStillInProgress_ThrowsConflict() {
+        // Arrange
+        when(idempotencyRecordRepository.claim(1L, "key-1", "2:100")).thenReturn(0);
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+                .thenReturn(Optional.of(new IdempotencyRecord(1L, "key-1", "2:100", IdempotencyRecord.IN_PROGRESS,
+                        null, null, null, Instant.now())));
+
+        // Act & Assert
+        assertThrows(ConcurrentTransactionException.class,
+                () -> idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("100")));
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void transfer_RejectedBeforeMoneyMoves_ReleasesKeyForRetry() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.claim(1L, "key-1", "2:100")).thenReturn(1);
+        doThrow(new ConcurrentTransactionException("Transaction in progress"))
+                .when(accountService).transferMoney(1L, 2L, new BigDecimal("100"));
+
+        // Act & Assert
+        assertThrows(ConcurrentTransactionException.class,
+                () -> idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("100")));
+        verify(idempotencyRecordRepository).release(1L, "key-1");
+        verify(idempotencyRecordRepository, never()).markUnknown(anyLong(), anyString());
+        verify(idempotencyRecordRepository, never()).complete(anyLong(), anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    void transfer_TechnicalFailure_MarksKeyUnknownInsteadOfReleasing() throws Exception {
+        // Arrange
+        when(idempotencyRecordRepository.claim(1L, "key-1", "2:100")).thenReturn(1);
+        doThrow(new QueryTimeoutException("timeout"))
+                .when(accountService).transferMoney(1L, 2L, new BigDecimal("100"));
+
+        // Act & Assert
+        assertThrows(QueryTimeoutException.class,
+                () -> idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("100")));
+        verify(idempotencyRecordRepository).markUnknown(1L, "key-1");
+        verify(idempotencyRecordRepository, never()).release(anyLong(), anyString());
+    }
+
+    @Test
+    void transfer_RetryAfterUnknownOutcome_DoesNotDebitAgain() {
+        // Arrange
+        when(idempotencyRecordRepository.claim(1L, "key-1", "2:100")).thenReturn(0);
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(1L, "key-1"))
+                .thenReturn(Optional.of(new IdempotencyRecord(1L, "key-1", "2:100", IdempotencyRecord.UNKNOWN,
+                        null, null, null, Instant.now())));
+
+        // Act & Assert
+        assertThrows(TransferOutcomeUnknownException.class,
+                () -> idempotentTransferService.transfer(1L, "key-1", 2L, new BigDecimal("100")));
+        verifyNoInteractions(accountService);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.banking.service;
+
+import com.example.banking.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InterestAccrualSchedulerTest {
+
+    private static final long TICK = 7L;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private InterestAccrualService interestAccrualService;
+
+    @Mock
+    private InterestRangeLeaseService leaseService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InterestAccrualScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new InterestAccrualScheduler(accountRepository, interestAccrualService, leaseService, 4, meterRegistry);
+        ReflectionTestUtils.setField(scheduler, "partitionSize", 100L);
+        when(interestAccrualService.currentTick()).thenReturn(TICK);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void runTick_SplitsIdSpaceIntoRangesAndProcessesClaimedOnes() {
+        // Arrange
+        when(accountRepository.findMinId()).thenReturn(1L);
+        when(accountRepository.findMaxId()).thenReturn(250L);
+        when(leaseService.tryClaim(eq(TICK), any(InterestRange.class)))
+                .thenAnswer(inv -> inv.<InterestRange>getArgument(1).getAfterId() != 100L);
+        when(interestAccrualService.accrueRange(anyLong(), anyLong(), eq(TICK))).thenReturn(10L);
+
+        // Act
+        long updated = scheduler.runTick();
+
+        // Assert
+        assertEquals(20L, updated);
+        verify(interestAccrualService).accrueRange(0L, 100L, TICK);
+        verify(interestAccrualService).accrueRange(200L, 250L, TICK);
+        verify(interestAccrualService, never()).accrueRange(100L, 200L, TICK);
+        assertEquals(20.0, meterRegistry.get("banking.interest.rows").counter().count());
+        assertEquals(1, meterRegistry.get("banking.interest.run").timer().count());
+    }
+
+    @Test
+    void runTick_RangeFails_ReleasesLeaseAndKeepsRangePending() {
+        // Arrange
+        InterestRange failing = new InterestRange(100L, 200L);
+        when(accountRepository.findMinId()).thenReturn(1L);
+        when(accountRepository.findMaxId()).thenReturn(250L);
+        when(leaseService.tryClaim(eq(TICK), any(InterestRange.class))).thenReturn(true);
+        when(interestAccrualService.accrueRange(anyLong(), anyLong(), eq(TICK))).thenReturn(10L);
+        when(interestAccrualService.accrueRange(100L, 200L, TICK)).thenThrow(new IllegalStateException("db down"));
+
+        // Act
+        long updated = scheduler.runTick();
+
+        // Assert
+        assertEquals(20L, updated);
+        verify(leaseService).release(TICK, failing);
+        verify(leaseService, never()).complete(TICK, failing);
+        verify(leaseService).complete(TICK, new InterestRange(0L, 100L));
+        assertEquals(1.0, meterRegistry.get("banking.interest.range.failures").counter().count());
+    }
+
+    @Test
+    void runTick_PendingRangeOfPastTick_CatchesUpBeforeCurrentTick() {
+        // Arrange
+        InterestRange range = new InterestRange(0L, 100L);
+        when(accountRepository.findMinId()).thenReturn(1L);
+        when(accountRepository.findMaxId()).thenReturn(100L);
+        when(leaseService.getCatchUpTicks()).thenReturn(3);
+        when(leaseService.pendingRanges(anyLong())).thenReturn(List.of());
+        when(leaseService.pendingRanges(TICK - 2)).thenReturn(List.of(range));
+        when(leaseService.tryClaim(anyLong(), eq(range))).thenReturn(true);
+        when(interestAccrualService.accrueRange(eq(0L), eq(100L), anyLong())).thenReturn(5L);
+
+        // Act
+        long updated = scheduler.runTick();
+
+        // Assert
+        assertEquals(10L, updated);
+        InOrder inOrder = inOrder(interestAccrualService, leaseService);
+        inOrder.verify(interestAccrualService).accrueRange(0L, 100L, TICK - 2);
+        inOrder.verify(leaseService).complete(TICK - 2, range);
+        inOrder.verify(interestAccrualService).accrueRange(0L, 100L, TICK);
+    }
+
+    @Test
+    void runTick_PastTickStillLeased_DefersCurrentTick() {
+        // Arrange
+        InterestRange range = new InterestRange(0L, 100L);
+        when(accountRepository.findMinId()).thenReturn(1L);
+        when(accountRepository.findMaxId()).thenReturn(100L);
+        when(leaseService.getCatchUpTicks()).thenReturn(3);
+        when(leaseService.pendingRanges(anyLong())).thenReturn(List.of());
+        when(leaseService.pendingRanges(TICK - 1)).thenReturn(List.of(range));
+        when(leaseService.tryClaim(TICK - 1, range)).thenReturn(false);
+
+        // Act
+        long updated = scheduler.runTick();
+
+        // Assert
+        assertEquals(0L, updated);
+        verify(leaseService).defer(TICK, range);
+        verify(leaseService, never()).tryClaim(TICK, range);
+        verify(interestAccrualService, never()).accrueRange(anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void runTick_NoAccounts_DoesNothing() {
+        // Arrange
+        when(accountRepository.findMinId()).thenReturn(null);
+
+        // Act
+        long updated = scheduler.runTick();
+
+        // Assert
+        assertEquals(0L, updated);
+        verifyNoInteractions(leaseService);
+    }
+}
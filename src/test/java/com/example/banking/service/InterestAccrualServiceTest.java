@@ -0,0 +1,72 @@
+package com.example.banking.service;
+
+import com.example.banking.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InterestAccrualServiceTest {
+
+    private static final BigDecimal RATE = new BigDecimal("1.1");
+    private static final BigDecimal CAP = new BigDecimal("2.07");
+    private static final long TICK = 42L;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InterestAccrualService interestAccrualService;
+
+    @BeforeEach
+    void setUp() {
+        interestAccrualService = new InterestAccrualService(accountRepository, transactionManager);
+    }
+
+    @Test
+    void accrueRange_ProcessesChunksByKeysetAndReportsRows() {
+        // Arrange
+        when(accountRepository.findInterestChunkUpperBound(eq(0L), eq(2000L), eq(TICK), eq(CAP), anyInt()))
+                .thenReturn(1000L);
+        when(accountRepository.findInterestChunkUpperBound(eq(1000L), eq(2000L), eq(TICK), eq(CAP), anyInt()))
+                .thenReturn(1500L);
+        when(accountRepository.findInterestChunkUpperBound(eq(1500L), eq(2000L), eq(TICK), eq(CAP), anyInt()))
+                .thenReturn(null);
+        when(accountRepository.applyInterestToRange(0L, 1000L, TICK, RATE, CAP)).thenReturn(1000);
+        when(accountRepository.applyInterestToRange(1000L, 1500L, TICK, RATE, CAP)).thenReturn(420);
+
+        // Act
+        long updated = interestAccrualService.accrueRange(0L, 2000L, TICK);
+
+        // Assert
+        assertEquals(1420, updated);
+        verify(accountRepository, never()).findAll();
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void applyInterest_NothingBelowCap_DoesNotOpenTransactions() {
+        // Arrange
+        when(accountRepository.findInterestChunkUpperBound(eq(0L), eq(Long.MAX_VALUE), anyLong(), eq(CAP), anyInt()))
+                .thenReturn(null);
+
+        // Act
+        long updated = interestAccrualService.applyInterest();
+
+        // Assert
+        assertEquals(0, updated);
+        verify(accountRepository, never()).applyInterestToRange(anyLong(), anyLong(), anyLong(), any(), any());
+        verifyNoInteractions(transactionManager);
+    }
+}
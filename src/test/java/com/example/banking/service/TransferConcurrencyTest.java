@@ -0,0 +1,145 @@
+package com.example.banking.service;
+
+import com.example.banking.exception.ConcurrentTransactionException;
+import com.example.banking.exception.InsufficientFundsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Нагрузочный тест встречных переводов; без Docker пропускается
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "banking.interest.period-ms=3600000"
+})
+class TransferConcurrencyTest {
+
+    private static final int ACCOUNTS = 10;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 300;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @Container
+    static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.redis.host", redis::getHost);
+        registry.add("spring.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Одной транзакцией: без нее каждый INSERT фиксировался бы отдельно
+    @BeforeEach
+    void seedAccounts() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM transfer");
+            jdbcTemplate.update("DELETE FROM account");
+            jdbcTemplate.update("DELETE FROM users");
+            for (int i = 0; i < ACCOUNTS; i++) {
+                Long userId = jdbcTemplate.queryForObject(
+                        "INSERT INTO users (id, name, date_of_birth, password) VALUES (nextval('users_seq'), ?, '01.01.1990', 'password') RETURNING id",
+                        Long.class, "stress-" + i);
+                jdbcTemplate.update("INSERT INTO account (id, user_id, balance, initial_deposit) VALUES (nextval('account_seq'), ?, 1000.00, 1000.00)",
+                        userId);
+            }
+        });
+    }
+
+    // Только корректность: пропускную способность режимов сравнивает TransferBenchmark в модуле benchmarks
+    @Test
+    void rowLockMode_OppositeDirectionTransfers_NoDeadlocksAndBalancesConserved() throws Exception {
+        RunResult rowLock = run(TransferMode.ROW_LOCK);
+
+        assertEquals(0, rowLock.lockFailures.get(), "row-lock transfers must not deadlock or time out on locks");
+        assertEquals(0, rowLock.conflicts.get());
+        assertEquals(0, rowLock.unexpectedErrors.get());
+        assertEquals(THREADS * TRANSFERS_PER_THREAD, rowLock.completed.get());
+        assertEquals(0, new BigDecimal("10000.00").compareTo(totalBalance()));
+    }
+
+    private RunResult run(TransferMode mode) throws Exception {
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(accountService), "transferMode", mode);
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT user_id FROM account ORDER BY id", Long.class);
+        RunResult result = new RunResult();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    Long from = userIds.get(random.nextInt(ACCOUNTS));
+                    Long to = userIds.get(random.nextInt(ACCOUNTS));
+                    try {
+                        accountService.transferMoney(from, to, new BigDecimal("1.00"));
+                        result.completed.incrementAndGet();
+                    } catch (InsufficientFundsException e) {
+                        result.completed.incrementAndGet();
+                    } catch (ConcurrentTransactionException e) {
+                        result.conflicts.incrementAndGet();
+                    } catch (ConcurrencyFailureException e) {
+                        result.lockFailures.incrementAndGet();
+                    } catch (Exception e) {
+                        result.unexpectedErrors.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        return result;
+    }
+
+    private BigDecimal totalBalance() {
+        return jdbcTemplate.queryForObject("SELECT SUM(balance) FROM account", BigDecimal.class);
+    }
+
+    private static class RunResult {
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger conflicts = new AtomicInteger();
+        final AtomicInteger lockFailures = new AtomicInteger();
+        final AtomicInteger unexpectedErrors = new AtomicInteger();
+    }
+}
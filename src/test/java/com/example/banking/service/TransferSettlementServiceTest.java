@@ -0,0 +1,76 @@
+package com.example.banking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferSettlementServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private TransferSettlementService settlementService;
+
+    @BeforeEach
+    void setUp() {
+        // Счета 1 и 2 существуют, на счете 1 — 100, на счете 2 — 0
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(2);
+            handler.processRow(row(1L, "100.00"));
+            handler.processRow(row(2L, "0.00"));
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT user_id, balance"),
+                any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void settle_BestEffort_AppliesPassingTransfersInOrder() {
+        // Act
+        List<TransferOutcome> outcomes = settlementService.settle(List.of(
+                new TransferInstruction(1L, 2L, new BigDecimal("60")),
+                new TransferInstruction(1L, 2L, new BigDecimal("60")),
+                new TransferInstruction(2L, 1L, new BigDecimal("30"))), false);
+
+        // Assert: второй перевод уже не проходит по остатку, третий использует зачисление от первого
+        assertEquals(List.of(TransferOutcome.COMPLETED, TransferOutcome.INSUFFICIENT_FUNDS, TransferOutcome.COMPLETED),
+                outcomes);
+        verify(jdbcTemplate).update(startsWith("UPDATE account"), any(PreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO transfer"), argThat((List<Object[]> rows) -> rows.size() == 2));
+    }
+
+    @Test
+    void settle_AllOrNothingWithFailure_WritesNothing() {
+        // Act
+        List<TransferOutcome> outcomes = settlementService.settle(List.of(
+                new TransferInstruction(1L, 2L, new BigDecimal("10")),
+                new TransferInstruction(1L, 3L, new BigDecimal("10"))), true);
+
+        // Assert
+        assertEquals(List.of(TransferOutcome.ROLLED_BACK, TransferOutcome.ACCOUNT_NOT_FOUND), outcomes);
+        verify(jdbcTemplate, never()).update(anyString(), any(PreparedStatementSetter.class));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    private static ResultSet row(long userId, String balance) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(userId);
+        when(rs.getBigDecimal(2)).thenReturn(new BigDecimal(balance));
+        return rs;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.UserExportRow;
+import com.example.banking.exception.InvalidCursorException;
+import com.example.banking.repository.UserExportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    @Mock
+    private UserExportRepository userExportRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserExportService userExportService;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportService(userExportRepository, transactionManager);
+        lenient().when(userExportRepository.getFetchSize()).thenReturn(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_Ndjson_OneObjectPerLineWithResumeCursor() throws IOException {
+        // Arrange
+        doAnswer(inv -> {
+            Consumer<UserExportRow> consumer = inv.getArgument(1);
+            consumer.accept(new UserExportRow(1L, "alice", "01.01.1990", new BigDecimal("10.50"),
+                    List.of("a@example.com"), List.of("79000000001"), "c1"));
+            consumer.accept(new UserExportRow(2L, "bob \"b\"", "02.02.1990", null, List.of(), List.of(), "c2"));
+            return null;
+        }).when(userExportRepository).forEachAfter(eq(0L), any(Consumer.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        userExportService.export(UserExportFormat.NDJSON, null).writeTo(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"id\":1,\"name\":\"alice\",\"dateOfBirth\":\"01.01.1990\",\"balance\":10.50," +
+                "\"emails\":[\"a@example.com\"],\"phones\":[\"79000000001\"],\"cursor\":\"c1\"}", lines[0]);
+        assertTrue(lines[1].contains("\"name\":\"bob \\\"b\\\"\"") && lines[1].contains("\"balance\":null"));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_Csv_QuotesFieldsAndJoinsContacts() throws IOException {
+        // Arrange
+        doAnswer(inv -> {
+            Consumer<UserExportRow> consumer = inv.getArgument(1);
+            consumer.accept(new UserExportRow(7L, "Doe, John", "01.01.1990", new BigDecimal("1.00"),
+                    List.of("a@example.com", "b@example.com"), List.of("79000000001"), "c7"));
+            return null;
+        }).when(userExportRepository).forEachAfter(eq(0L), any(Consumer.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        userExportService.export(UserExportFormat.CSV, null).writeTo(out);
+
+        // Assert
+        assertEquals(UserExportService.CSV_HEADER +
+                "7,\"Doe, John\",01.01.1990,1.00,a@example.com;b@example.com,79000000001,c7\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_FirstRowFlushedBeforeQueryCompletes() throws IOException {
+        // Arrange
+        OutputStream out = mock(OutputStream.class);
+        doAnswer(inv -> {
+            Consumer<UserExportRow> consumer = inv.getArgument(1);
+            consumer.accept(new UserExportRow(1L, "alice", "01.01.1990", BigDecimal.ONE, List.of(), List.of(), "c1"));
+            verify(out).flush();
+            return null;
+        }).when(userExportRepository).forEachAfter(anyLong(), any(Consumer.class));
+
+        // Act
+        userExportService.export(UserExportFormat.NDJSON, null).writeTo(out);
+
+        // Assert
+        verify(out, times(2)).flush();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void export_ClientDisconnects_RollsBackAndPropagatesIoException() throws IOException {
+        // Arrange
+        OutputStream out = mock(OutputStream.class);
+        doThrow(new IOException("Broken pipe")).when(out).flush();
+        doAnswer(inv -> {
+            Consumer<UserExportRow> consumer = inv.getArgument(1);
+            consumer.accept(new UserExportRow(1L, "alice", "01.01.1990", BigDecimal.ONE, List.of(), List.of(), "c1"));
+            return null;
+        }).when(userExportRepository).forEachAfter(anyLong(), any(Consumer.class));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> userExportService.export(UserExportFormat.NDJSON, null).writeTo(out));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void export_InvalidCursor_RejectedBeforeStreaming() {
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> userExportService.export(UserExportFormat.CSV, "garbage!"));
+        verifyNoInteractions(transactionManager);
+    }
+}
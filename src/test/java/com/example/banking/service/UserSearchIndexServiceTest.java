@@ -0,0 +1,78 @@
+package com.example.banking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchIndexServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet indexState;
+
+    private UserSearchIndexService indexService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        indexService = new UserSearchIndexService(jdbcTemplate);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+                .thenAnswer(inv -> inv.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        when(connection.getAutoCommit()).thenReturn(false);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(contains("indisvalid"))).thenReturn(indexState);
+    }
+
+    @Test
+    void createIndex_NoIndexYet_BuildsItConcurrentlyOutsideTransaction() throws Exception {
+        // Arrange
+        when(indexState.next()).thenReturn(false);
+
+        // Act
+        indexService.createIndex();
+
+        // Assert
+        InOrder inOrder = inOrder(connection, statement);
+        inOrder.verify(connection).setAutoCommit(true);
+        inOrder.verify(statement).execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        inOrder.verify(statement).execute(
+                "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm ON users USING gin (name gin_trgm_ops)");
+        inOrder.verify(connection).setAutoCommit(false);
+        verify(statement, never()).execute(startsWith("DROP INDEX"));
+    }
+
+    @Test
+    void createIndex_InvalidIndexLeftByInterruptedBuild_RebuildsIt() throws Exception {
+        // Arrange
+        when(indexState.next()).thenReturn(true);
+        when(indexState.getBoolean(1)).thenReturn(false);
+
+        // Act
+        indexService.createIndex();
+
+        // Assert
+        InOrder inOrder = inOrder(statement);
+        inOrder.verify(statement).execute("DROP INDEX CONCURRENTLY IF EXISTS idx_users_name_trgm");
+        inOrder.verify(statement).execute(startsWith("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm"));
+    }
+}
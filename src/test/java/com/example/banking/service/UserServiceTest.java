@@ -0,0 +1,176 @@
+package com.example.banking.service;
+
+import com.example.banking.dto.UserCredentials;
+import com.example.banking.dto.UserUpdateDto;
+import com.example.banking.exception.DuplicateEmailException;
+import com.example.banking.model.EmailData;
+import com.example.banking.model.User;
+import com.example.banking.repository.EmailDataRepository;
+import com.example.banking.repository.UserRepository;
+import com.example.banking.security.BankingUserDetails;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EmailDataRepository emailDataRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache credentialsCache;
+
+    @InjectMocks
+    private UserService userService;
+
+    @Test
+    void loadUserByUsername_UsesCredentialsProjection() {
+        // Arrange
+        when(userRepository.findCredentialsByName("alice"))
+                .thenReturn(Optional.of(new UserCredentials(1L, "alice", "{bcrypt}hash")));
+
+        // Act
+        UserDetails details = userService.loadUserByUsername("alice");
+
+        // Assert
+        assertEquals("alice", details.getUsername());
+        assertEquals("{bcrypt}hash", details.getPassword());
+        verify(userRepository, never()).findByName(any());
+    }
+
+    @Test
+    void loadUserByUsername_Unknown_Throws() {
+        // Arrange
+        when(userRepository.findCredentialsByName("ghost")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername("ghost"));
+    }
+
+    @Test
+    void updateUserData_NameChanged_EvictsOldAndNewName() {
+        // Arrange
+        User user = new User();
+        user.setId(1L);
+        user.setName("alice");
+        when(userRepository.findWithContactsById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+        when(cacheManager.getCache("credentials")).thenReturn(credentialsCache);
+        UserUpdateDto updateDto = new UserUpdateDto();
+        updateDto.setName("alice2");
+
+        // Act
+        userService.updateUserData(1L, updateDto);
+
+        // Assert
+        verify(credentialsCache).evict("alice");
+        verify(credentialsCache).evict("alice2");
+    }
+
+    @Test
+    void updateUserData_OnlyDateOfBirthChanged_KeepsCredentialsCache() {
+        // Arrange
+        User user = new User();
+        user.setId(1L);
+        user.setName("alice");
+        when(userRepository.findWithContactsById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+        UserUpdateDto updateDto = new UserUpdateDto();
+        updateDto.setDateOfBirth("01.01.1990");
+
+        // Act
+        userService.updateUserData(1L, updateDto);
+
+        // Assert
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    void updateUserData_ManyNewEmails_ValidatedWithOneQuery() {
+        // Arrange
+        User user = new User();
+        user.setId(1L);
+        user.setName("alice");
+        user.getEmails().add(new EmailData(7L, user, "keep@example.com"));
+        when(userRepository.findWithContactsById(1L)).thenReturn(Optional.of(user));
+        when(emailDataRepository.findExistingEmails(anyCollection())).thenReturn(List.of("taken@example.com"));
+        UserUpdateDto updateDto = new UserUpdateDto();
+        Set<UserUpdateDto.EmailData> emails = new HashSet<>();
+        emails.add(emailUpdate(7L, "keep@example.com"));
+        for (String email : List.of("a@example.com", "b@example.com", "taken@example.com")) {
+            emails.add(emailUpdate(null, email));
+        }
+        updateDto.setEmails(emails);
+
+        // Act & Assert
+        assertThrows(DuplicateEmailException.class, () -> userService.updateUserData(1L, updateDto));
+        verify(emailDataRepository).findExistingEmails(
+                Set.of("a@example.com", "b@example.com", "taken@example.com"));
+        verify(emailDataRepository, never()).existsByEmail(anyString());
+        verify(userRepository, never()).save(any());
+    }
+
+    private static UserUpdateDto.EmailData emailUpdate(Long id, String email) {
+        UserUpdateDto.EmailData emailData = new UserUpdateDto.EmailData();
+        emailData.setId(id);
+        emailData.setEmail(email);
+        return emailData;
+    }
+
+    @Test
+    void updatePassword_OutdatedHash_ReplacedAndCredentialsEvicted() {
+        // Arrange
+        Cache credentialsCache = mock(Cache.class);
+        when(cacheManager.getCache("credentials")).thenReturn(credentialsCache);
+        when(userRepository.replacePasswordHash(1L, "$2a$04$old", "{bcrypt}$2a$12$new")).thenReturn(1);
+        BankingUserDetails user = new BankingUserDetails(1L, "alice", "$2a$04$old",
+                AuthorityUtils.createAuthorityList("USER"));
+
+        // Act
+        UserDetails updated = userService.updatePassword(user, "{bcrypt}$2a$12$new");
+
+        // Assert
+        assertEquals("{bcrypt}$2a$12$new", updated.getPassword());
+        verify(credentialsCache).evict("alice");
+    }
+
+    @Test
+    void updatePassword_ChangedConcurrently_KeepsNewerPassword() {
+        // Arrange
+        when(userRepository.replacePasswordHash(1L, "$2a$04$old", "{bcrypt}$2a$12$new")).thenReturn(0);
+        BankingUserDetails user = new BankingUserDetails(1L, "alice", "$2a$04$old",
+                AuthorityUtils.createAuthorityList("USER"));
+
+        // Act
+        UserDetails updated = userService.updatePassword(user, "{bcrypt}$2a$12$new");
+
+        // Assert
+        assertSame(user, updated);
+        verifyNoInteractions(cacheManager);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.banking.sql;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SqlBudgetFilterTest {
+
+    private static final String USER_QUERY = "SELECT * FROM users WHERE id = ?";
+    private static final String EMAILS_QUERY = "SELECT * FROM email_data WHERE user_id = ?";
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource dataSource;
+    private SqlBudgetFilter filter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        dataSource = ProxyDataSourceBuilder.create(target)
+                .listener(new SqlTracingListener(1_000, meterRegistry))
+                .build();
+        filter = new SqlBudgetFilter(meterRegistry, 3, 1_000);
+    }
+
+    @Test
+    void doFilter_CountsStatementsPerEndpoint() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("/api/users/1", "/api/users/{id}");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), executing(USER_QUERY, EMAILS_QUERY));
+
+        // Assert
+        SqlRequestStats stats = (SqlRequestStats) request.getAttribute(SqlRequestStats.ATTRIBUTE);
+        assertEquals(2, stats.getStatements());
+        assertTrue(stats.getRepeatedStatements(3).isEmpty());
+        assertEquals(2.0, meterRegistry.get("banking.sql.statements").tag("uri", "/api/users/{id}")
+                .summary().totalAmount());
+        assertEquals(0.0, meterRegistry.get("banking.sql.budget.exceeded").counter().count());
+    }
+
+    @Test
+    void doFilter_NPlusOneOverBudget_CountsExceededAndReportsRepeats() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("/api/users/search", "/api/users/search");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(),
+                executing(USER_QUERY, EMAILS_QUERY, EMAILS_QUERY, EMAILS_QUERY, EMAILS_QUERY));
+
+        // Assert
+        SqlRequestStats stats = (SqlRequestStats) request.getAttribute(SqlRequestStats.ATTRIBUTE);
+        assertEquals(5, stats.getStatements());
+        assertEquals(EMAILS_QUERY, stats.getRepeatedStatements(3).get(0).getKey());
+        assertEquals(4, stats.getRepeatedStatements(3).get(0).getValue());
+        assertEquals(1.0, meterRegistry.get("banking.sql.budget.exceeded").tag("uri", "/api/users/search")
+                .counter().count());
+    }
+
+    @Test
+    void track_OutsideRequest_CountsOnlyTrackedBlock() throws Exception {
+        // Arrange
+        execute(USER_QUERY);
+
+        // Act
+        SqlRequestStats stats = SqlTracingListener.track(() -> execute(USER_QUERY));
+
+        // Assert
+        assertEquals(1, stats.getStatements());
+        assertTrue(stats.getDbTimeNanos() > 0);
+    }
+
+    private FilterChain executing(String... queries) {
+        return (request, response) -> {
+            for (String query : queries) {
+                execute(query);
+            }
+        };
+    }
+
+    private void execute(String query) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.executeQuery();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MockHttpServletRequest request(String path, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}